@@ -3,6 +3,7 @@ DROP   TABLE IF EXISTS `t_user`;
 CREATE TABLE           `t_user` (
 -- ---------------------+--------+--------+--------+-----------------------------------
     `id`                  VARCHAR(     36) NOT NULL                                    COMMENT 'User ID'
+  , `id_key`              VARCHAR(     36) COLLATE utf8mb4_bin AS (LOWER(id)) PERSISTENT COMMENT 'Lower case of the user ID. Its binary order is the id order of the application, used for paging.'
   , `enabled`             BOOLEAN          NOT NULL DEFAULT TRUE                       COMMENT 'Enabled state. It is calculated from three items: from_ts, to_ts, and ignored, but the calculation is asynchronous.'
   , `from_ts`            DATETIME          NOT NULL DEFAULT '2000-01-01 00:00:00'      COMMENT 'Begin date-time of enabled period.'
   , `to_ts`              DATETIME          NOT NULL DEFAULT '2999-12-31 23:59:59'      COMMENT 'End date-time of enabled period.'
@@ -21,6 +22,7 @@ CREATE TABLE           `t_user` (
   , `upd_ap`              VARCHAR(    250)                                             COMMENT 'The name of the application that updated.'
 -- ---------------------+--------+--------+--------+-----------------------------------
   , PRIMARY KEY (`id`)
+  , UNIQUE KEY t_user_key01 (`id_key`)                                                 COMMENT 'For paging in the id order of the application.'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=COMPACT
   COMMENT='Content of the user.'
   ENCRYPTED=YES ENCRYPTION_KEY_ID=5
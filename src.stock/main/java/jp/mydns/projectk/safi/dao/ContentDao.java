@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.dao;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.json.JsonValue;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.QueryTimeoutException;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jp.mydns.projectk.safi.entity.ContentEntity;
+import jp.mydns.projectk.safi.entity.ContentEntity_;
+import jp.mydns.projectk.safi.value.FilteringConditionValue;
+import jp.mydns.projectk.safi.value.FilteringPredicate;
+
+/**
+ <i>Content</i> data access processing.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public interface ContentDao {
+
+/**
+ Get id and digest of all contents, ordered by id. Contents are read by keyset pagination, that is
+ each page is queried by {@code id > last id of previous page}, so at most one page is held in memory. A page is
+ queried when the previous page has been consumed.
+
+ <p>
+ Ids are ordered by the binary of {@code LOWER(id)} instead of the collation of the id column, so that the order is
+ the same as {@link String#CASE_INSENSITIVE_ORDER} that {@link jp.mydns.projectk.safi.util.DiffUtils} and
+ {@link jp.mydns.projectk.safi.value.ContentMap} use. A collation such as {@code utf8mb4_general_ci} compares the
+ upper case, so it orders {@code [\]^_} before letters, while the lower case orders them after. The order key is the
+ {@code id_key} column, a persisted generated column of {@code LOWER(id)} in a binary collation with its own unique
+ index, so each page is read by a range scan of that index.
+
+ @param <E> entity type
+ @param entityClass the entity class
+ @param pageSize number of contents per page
+ @return id and digest of all contents, in ascending order of the lower case id
+ @throws NullPointerException if {@code entityClass} is {@code null}
+ @throws IllegalArgumentException if {@code pageSize} is less than 1
+ @throws QueryTimeoutException if the query execution exceeds the query timeout value set and only
+ the statement is rolled back.
+ @throws PersistenceException if the query execution was failed.
+ @since 3.0.0
+ */
+<E extends ContentEntity> Stream<Map.Entry<String, String>> getDigests(Class<E> entityClass, int pageSize);
+
+/**
+ Get contents matching the filter, ordered by id. Contents are read by keyset pagination same as
+ {@link #getDigests(java.lang.Class, int)}, but in the collation of the id column. The condition of {@code filter} is
+ translated by {@link FilteringCriteria} as far as possible, so that mostly only matching contents are read from the
+ database, and then each content is evaluated by {@code filter}. So the result does not depend on the database
+ collation. Contents of each page are detached from the persistence context as soon as the page is read, so the
+ persistence context does not grow with the number of contents read, and the returned entities are detached.
+
+ <p>
+ The caller owns {@code filter}, so it can record the order of evaluation chosen by the statistics, see
+ {@link FilteringPredicate.Adaptive#getCondition()}. Its statistics are collected from the contents read from the
+ database, that is the contents it evaluates, so the order is tuned for them rather than for all contents.
+
+ @param <E> entity type
+ @param entityClass the entity class
+ @param filter the {@code FilteringPredicate.Adaptive}
+ @param pageSize number of contents read per page
+ @return contents matching {@code filter}. The order follows the collation of the id column.
+ @throws NullPointerException if any argument is {@code null}
+ @throws IllegalArgumentException if {@code pageSize} is less than 1
+ @throws QueryTimeoutException if the query execution exceeds the query timeout value set and only
+ the statement is rolled back.
+ @throws PersistenceException if the query execution was failed.
+ @since 3.0.0
+ */
+<E extends ContentEntity> Stream<E> getContents(Class<E> entityClass, FilteringPredicate.Adaptive filter,
+    int pageSize);
+
+/**
+ Implements of the {@code ContentDao}.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+@Typed(ContentDao.class)
+@ApplicationScoped
+class Impl implements ContentDao {
+
+private final Provider<EntityManager> emPvd;
+
+@SuppressWarnings("unused")
+Impl() {
+    // Note: The default constructor exists only to allow NetBeans to recognize the CDI bean.
+    throw new UnsupportedOperationException();
+}
+
+@Inject
+@SuppressWarnings("unused")
+Impl(Provider<EntityManager> emPvd) {
+    this.emPvd = emPvd;
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if {@code entityClass} is {@code null}
+ @throws IllegalArgumentException if {@code pageSize} is less than 1
+ @throws QueryTimeoutException if the query execution exceeds the query timeout value set and only
+ the statement is rolled back.
+ @throws PersistenceException if the query execution was failed.
+ @since 3.0.0
+ */
+@Override
+public <E extends ContentEntity> Stream<Map.Entry<String, String>> getDigests(Class<E> entityClass,
+    int pageSize) {
+
+    Objects.requireNonNull(entityClass);
+
+    if (pageSize < 1) {
+        throw new IllegalArgumentException("Page size must be positive.");
+    }
+
+    return stream(new Pages<>(lastId -> getDigests(entityClass, lastId, pageSize), Map.Entry::getKey, pageSize));
+}
+
+private List<Map.Entry<String, String>> getDigests(Class<? extends ContentEntity> entityClass,
+    String lastId, int pageSize) {
+
+    EntityManager em = emPvd.get();
+
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+
+    CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+
+    Root<? extends ContentEntity> content = cq.from(entityClass);
+
+    Path<String> key = content.get(ContentEntity_.idKey);
+
+    cq.select(cb.tuple(content.get(ContentEntity_.id), content.get(ContentEntity_.digest)));
+
+    if (lastId != null) {
+        // Note: LOWER of a literal is compared in the binary collation of the column, so the index is used.
+        cq.where(cb.greaterThan(key, cb.lower(cb.literal(lastId))));
+    }
+
+    return em.createQuery(cq.orderBy(cb.asc(key))).setMaxResults(pageSize).getResultStream()
+        .map(t -> Map.entry(t.get(0, String.class), t.get(1, String.class))).toList();
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if any argument is {@code null}
+ @throws IllegalArgumentException if {@code pageSize} is less than 1
+ @throws QueryTimeoutException if the query execution exceeds the query timeout value set and only
+ the statement is rolled back.
+ @throws PersistenceException if the query execution was failed.
+ @since 3.0.0
+ */
+@Override
+public <E extends ContentEntity> Stream<E> getContents(Class<E> entityClass, FilteringPredicate.Adaptive filter,
+    int pageSize) {
+
+    Objects.requireNonNull(entityClass);
+    Objects.requireNonNull(filter);
+
+    if (pageSize < 1) {
+        throw new IllegalArgumentException("Page size must be positive.");
+    }
+
+    // Note: Take the condition before evaluating, so that every page is queried by the same SQL.
+    FilteringConditionValue condition = filter.getCondition();
+
+    return stream(new Pages<>(lastId -> getContents(entityClass, condition, lastId, pageSize), ContentEntity::getId,
+        pageSize))
+        .filter(e -> matches(filter, e));
+}
+
+private <E extends ContentEntity> List<E> getContents(Class<E> entityClass, FilteringConditionValue condition,
+    String lastId, int pageSize) {
+
+    EntityManager em = emPvd.get();
+
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+
+    CriteriaQuery<E> cq = cb.createQuery(entityClass);
+
+    Root<E> content = cq.from(entityClass);
+
+    Path<String> id = content.get(ContentEntity_.id);
+
+    Predicate filter = FilteringCriteria.toPredicate(cb, content.get(ContentEntity_.properties), condition);
+
+    cq.select(content).where(lastId == null ? filter : cb.and(cb.greaterThan(id, lastId), filter));
+
+    List<E> contents = em.createQuery(cq.orderBy(cb.asc(id))).setMaxResults(pageSize).getResultList();
+
+    // Note: Detach instead of clear, because clear would also discard pending changes of the caller.
+    contents.forEach(em::detach);
+
+    return contents;
+}
+
+private boolean matches(FilteringPredicate.Adaptive filter, ContentEntity content) {
+    JsonValue props = content.getProperties() != null ? content.getProperties().unwrap() : null;
+
+    return props != null && props.getValueType() == JsonValue.ValueType.OBJECT && filter.test(props.asJsonObject());
+}
+
+private <T> Stream<T> stream(Pages<T> pages) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+}
+
+private static class Pages<T> implements Iterator<T> {
+
+private final Function<String, List<T>> query;
+private final Function<T, String> idOf;
+private final int pageSize;
+private Iterator<T> page;
+private String lastId;
+private boolean lastPage;
+
+private Pages(Function<String, List<T>> query, Function<T, String> idOf, int pageSize) {
+    this.query = query;
+    this.idOf = idOf;
+    this.pageSize = pageSize;
+}
+
+@Override
+public boolean hasNext() {
+    if ((page == null || !page.hasNext()) && !lastPage) {
+        List<T> entries = query.apply(lastId);
+
+        lastPage = entries.size() < pageSize;
+        page = entries.iterator();
+
+        if (!entries.isEmpty()) {
+            lastId = idOf.apply(entries.getLast());
+        }
+    }
+
+    return page.hasNext();
+}
+
+@Override
+public T next() {
+    if (!hasNext()) {
+        throw new NoSuchElementException();
+    }
+
+    return page.next();
+}
+
+}
+
+}
+
+}
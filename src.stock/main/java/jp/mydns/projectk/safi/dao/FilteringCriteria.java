@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.dao;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import jp.mydns.projectk.safi.value.FilteringConditionValue;
+import jp.mydns.projectk.safi.value.FilteringPredicate;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.LeafOperation;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.NodeOperation;
+import jp.mydns.projectk.safi.value.LeafConditionValue;
+import jp.mydns.projectk.safi.value.NodeConditionValue;
+
+/**
+ Translator of the {@code FilteringConditionValue} into a JPA Criteria predicate over the JSON properties column, so
+ that rows not matching the condition are excluded on the database side.
+
+ <p>
+ The translated predicate selects a superset of the matching rows, and rows must be evaluated again by
+ {@link FilteringPredicate}. Parts of the condition that cannot be translated are treated as matching any row. So the
+ in-memory evaluation decides the final result, and the database only narrows rows that cross the wire.
+
+ <p>
+ Case-insensitive matching is done by {@code LOWER} and {@code LIKE} with a pattern of ASCII. {@code LOWER} folds only
+ ASCII letters the same as {@link FilteringPredicate#fold(String)}, which also folds a few characters out of ASCII
+ into ASCII letters, such as {@code U+212A KELVIN SIGN} into {@code k}. Those characters are replaced by
+ {@code REPLACE} before {@code LOWER}, so that a stored value matched in memory is also matched by the database. A
+ folding by {@code LOWER} beyond that only widens the superset.
+
+ <p>
+ Translated operations.
+ <ul>
+ <li>{@code IS_NULL} is translated into {@code JSON_EXTRACT} and {@code JSON_TYPE}, also if negated.</li>
+ <li>{@code EQUAL}, {@code FORWARD_MATCH}, {@code BACKWARD_MATCH} and {@code PARTIAL_MATCH} are translated into
+ {@code LIKE} over {@code LOWER(JSON_UNQUOTE(JSON_EXTRACT(...)))}, if the value to filter on is ASCII and is not a
+ number. They are not translated if negated, because the negation of a superset is not a superset.</li>
+ <li>{@code GRATER_THAN} and {@code LESS_THAN} are not translated, because their ordering differs from the
+ collation.</li>
+ <li>{@code AND}, {@code OR} and {@code NOT_OR} are translated from their children.</li>
+ </ul>
+
+ <p>
+ Implementation requirements.
+ <ul>
+ <li>This class has not variable field member and it has all method is static.</li>
+ </ul>
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public class FilteringCriteria {
+
+private static final char LIKE_ESCAPE = '\\';
+
+// Note: Pairs of a character out of ASCII and the ASCII character which it is folded into in memory.
+private static final String[][] FOLDED_INTO_ASCII = foldedIntoAscii();
+
+private FilteringCriteria() {
+}
+
+/**
+ Translate the {@code FilteringConditionValue} into a predicate.
+
+ @param cb the {@code CriteriaBuilder}
+ @param properties the JSON properties column
+ @param condition the {@code FilteringConditionValue}
+ @return predicate that selects a superset of rows matching {@code condition}. It is a conjunction if nothing can
+ be translated.
+ @throws NullPointerException if any argument is {@code null}
+ @throws IllegalArgumentException if {@code condition} is invalid
+ @since 3.0.0
+ */
+public static Predicate toPredicate(CriteriaBuilder cb, Expression<?> properties, FilteringConditionValue condition) {
+    Objects.requireNonNull(cb);
+    Objects.requireNonNull(properties);
+    Objects.requireNonNull(condition);
+
+    Predicate p = new Translator(cb, properties).translate(condition, false);
+
+    return p != null ? p : cb.conjunction();
+}
+
+/**
+ Translator of a condition tree. A {@code null} translation means that any row can match.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+private static class Translator {
+
+private final CriteriaBuilder cb;
+private final Expression<?> properties;
+
+private Translator(CriteriaBuilder cb, Expression<?> properties) {
+    this.cb = cb;
+    this.properties = properties;
+}
+
+Predicate translate(FilteringConditionValue condition, boolean negated) {
+    return switch (condition) {
+        case LeafConditionValue leaf when leaf.getOperation() instanceof LeafOperation op ->
+            translateLeaf(op, leaf.getName(), leaf.getValue(), negated);
+        case NodeConditionValue node when node.getOperation() instanceof NodeOperation op
+            && node.getChildren() != null ->
+            translateNode(op, node.getChildren(), negated);
+        case null, default ->
+            throw new IllegalArgumentException("Invalid filtering condition. " + condition);
+    };
+}
+
+private Predicate translateNode(NodeOperation op, List<FilteringConditionValue> children, boolean negated) {
+    // Note: NOT_OR is the negation of OR, and by De Morgan's laws a negated AND is an OR of negated children.
+    boolean childNegated = negated ^ (op == NodeOperation.NOT_OR);
+    boolean conjunctive = (op == NodeOperation.AND) != childNegated;
+
+    List<Predicate> predicates = new ArrayList<>(children.size());
+
+    for (FilteringConditionValue child : children) {
+        Predicate p = translate(child, childNegated);
+
+        if (p != null) {
+            predicates.add(p);
+        } else if (!conjunctive) {
+            // Note: A disjunction with a child that can match any row can also match any row.
+            return null;
+        }
+    }
+
+    if (conjunctive) {
+        return predicates.isEmpty() ? null : cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    return cb.or(predicates.toArray(Predicate[]::new));
+}
+
+private Predicate translateLeaf(LeafOperation op, String name, String value, boolean negated) {
+    if (name == null) {
+        throw new IllegalArgumentException("Property name to filter on must not be null.");
+    }
+
+    Expression<String> extracted = cb.function("JSON_EXTRACT", String.class, properties, cb.literal(toPath(name)));
+
+    if (op == LeafOperation.IS_NULL) {
+        Predicate isNull = cb.or(cb.isNull(extracted), cb.equal(type(extracted), "NULL"));
+
+        return negated ? cb.not(isNull) : isNull;
+    }
+
+    if (negated || value == null || !isTranslatable(value)) {
+        return null;
+    }
+
+    String escaped = escapeLike(value.toLowerCase(Locale.ROOT));
+
+    String pattern = switch (op) {
+        case EQUAL ->
+            escaped;
+        case FORWARD_MATCH ->
+            escaped + "%";
+        case BACKWARD_MATCH ->
+            "%" + escaped;
+        case PARTIAL_MATCH ->
+            "%" + escaped + "%";
+        default ->
+            null;
+    };
+
+    if (pattern == null) {
+        return null;
+    }
+
+    // Note: Guarded by NOT NULL so that it is never unknown, even if negated by an enclosing NOT.
+    return cb.and(cb.isNotNull(extracted), cb.not(type(extracted).in("NULL", "OBJECT", "ARRAY")),
+        cb.like(fold(cb.function("JSON_UNQUOTE", String.class, extracted)), pattern, LIKE_ESCAPE));
+}
+
+private Expression<String> fold(Expression<String> value) {
+    Expression<String> replaced = value;
+
+    for (String[] pair : FOLDED_INTO_ASCII) {
+        replaced = cb.function("REPLACE", String.class, replaced, cb.literal(pair[0]), cb.literal(pair[1]));
+    }
+
+    return cb.lower(replaced);
+}
+
+private Expression<String> type(Expression<String> extracted) {
+    return cb.function("JSON_TYPE", String.class, extracted);
+}
+
+}
+
+private static String[][] foldedIntoAscii() {
+    List<String[]> pairs = new ArrayList<>();
+
+    for (char c = 0x80; c < Character.MAX_VALUE; c++) {
+        String folded = FilteringPredicate.fold(String.valueOf(c));
+
+        if (folded.charAt(0) < 0x80) {
+            pairs.add(new String[]{String.valueOf(c), folded});
+        }
+    }
+
+    return pairs.toArray(String[][]::new);
+}
+
+private static String toPath(String name) {
+    StringBuilder sb = new StringBuilder(name.length() + 5).append("$.\"");
+
+    for (int i = 0; i < name.length(); i++) {
+        char c = name.charAt(i);
+
+        if (c == '"' || c == '\\') {
+            sb.append('\\');
+        }
+
+        sb.append(c);
+    }
+
+    return sb.append('"').toString();
+}
+
+private static String escapeLike(String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 8);
+
+    for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+
+        if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+            sb.append(LIKE_ESCAPE);
+        }
+
+        sb.append(c);
+    }
+
+    return sb.toString();
+}
+
+// Note: A numeric value is compared numerically in memory, and a non-ASCII value may be folded differently.
+private static boolean isTranslatable(String value) {
+    boolean numeric = !value.isEmpty();
+
+    for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+
+        if (c >= 0x80) {
+            return false;
+        }
+
+        numeric &= c >= '0' && c <= '9' || c == '+' || c == '-' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    return !numeric;
+}
+
+}
@@ -40,6 +40,7 @@ import jp.mydns.projectk.safi.util.JsonValueUtils;
 import static jp.mydns.projectk.safi.util.LambdaUtils.f;
 import static jp.mydns.projectk.safi.util.TimeUtils.toLocalDateTime;
 import static jp.mydns.projectk.safi.util.TimeUtils.toOffsetDateTime;
+import jp.mydns.projectk.safi.value.InterningCache;
 import jp.mydns.projectk.safi.value.JobCreationContext;
 import jp.mydns.projectk.safi.value.JobValue;
 import jp.mydns.projectk.safi.value.JobdefValue;
@@ -98,6 +99,10 @@ class Impl extends ValidityPeriodDxo implements JobDxo {
 
 private final JsonService jsonSvc;
 
+// Note: Jobs made from the same definition have the same snapshot, so the bound values are shared by the column text.
+private final InterningCache<String, JobdefValue> jobdefs = new InterningCache<>(256);
+private final InterningCache<String, SchedefValue> schedefs = new InterningCache<>(256);
+
 @SuppressWarnings("unused")
 Impl() {
     // Note: The default constructor exists only to allow NetBeans to recognize the CDI bean.
@@ -195,11 +200,9 @@ public JobValue toValue(JobEntity entity) {
         .withEndTime(toOffsetDateTime(entity.getEndTime()))
         .withProperties(entity.getProperties().unwrap().asJsonObject())
         .withJobdefId(entity.getJobdefId())
-        .withJobdef(jsonSvc.fromJsonValue(entity.getJobdef().unwrap(), JobdefValue.class))
+        .withJobdef(toJobdef(entity.getJobdef()))
         .withSchedefId(entity.getSchedefId())
-        .withSchedef(Optional.ofNullable(entity.getSchedef())
-            .map(f(jsonSvc.fromJsonValue(SchedefValue.class)).compose(SJson::unwrap))
-            .orElse(null))
+        .withSchedef(Optional.ofNullable(entity.getSchedef()).map(this::toSchedef).orElse(null))
         .withResultMessages(Optional.ofNullable(entity.getResultMessages())
             .map(f(JsonValue::asJsonArray).compose(SJson::unwrap))
             .map(convertElements(JsonValueUtils::toString))
@@ -215,6 +218,23 @@ public JobValue toValue(JobEntity entity) {
         .unsafeBuild();
 }
 
+// Note: Only a lazy value holds the column text as is. Keying other values would serialize them on every call.
+private JobdefValue toJobdef(SJson json) {
+    return json.isLazy() ? jobdefs.intern(json.toString(), k -> bindJobdef(json)) : bindJobdef(json);
+}
+
+private JobdefValue bindJobdef(SJson json) {
+    return jsonSvc.fromJsonValue(json.unwrap(), JobdefValue.class);
+}
+
+private SchedefValue toSchedef(SJson json) {
+    return json.isLazy() ? schedefs.intern(json.toString(), k -> bindSchedef(json)) : bindSchedef(json);
+}
+
+private SchedefValue bindSchedef(SJson json) {
+    return jsonSvc.fromJsonValue(SchedefValue.class).apply(json.unwrap());
+}
+
 }
 
 }
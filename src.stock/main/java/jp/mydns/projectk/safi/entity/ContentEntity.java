@@ -52,6 +52,10 @@ private static final long serialVersionUID = -4573193428404973991L;
 @Column(name = "id", nullable = false, updatable = false, length = 36)
 protected String id;
 
+// Note: Generated by the database as LOWER(id), so it is never written by JPA.
+@Column(name = "id_key", insertable = false, updatable = false, length = 36)
+protected String idKey;
+
 @Column(name = "enabled", nullable = false)
 protected boolean enabled;
 
@@ -85,6 +89,17 @@ public void setId(String id) {
     this.id = id;
 }
 
+/**
+ Get the lower case of the content id. It is generated by the database, so it is {@code null} until the content is
+ read from the database.
+
+ @return lower case of the content id. It may be {@code null}.
+ @since 3.0.0
+ */
+public String getIdKey() {
+    return idKey;
+}
+
 /**
  Get the enabled state.
 
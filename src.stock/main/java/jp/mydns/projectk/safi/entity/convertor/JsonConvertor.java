@@ -25,11 +25,10 @@
  */
 package jp.mydns.projectk.safi.entity.convertor;
 
-import jakarta.json.Json;
 import jakarta.json.stream.JsonParsingException;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
-import java.io.StringReader;
+import jp.mydns.projectk.safi.value.InterningCache;
 import jp.mydns.projectk.safi.value.SJson;
 
 /**
@@ -42,12 +41,18 @@ import jp.mydns.projectk.safi.value.SJson;
 @Converter(autoApply = true)
 public final class JsonConvertor implements AttributeConverter<SJson, String> {
 
+// Note: Identical column values, such as job definition snapshots of jobs made from the same job definition, share
+//       one instance, so that it is parsed only once. Large values are not shared to bound the memory usage.
+private static final InterningCache<String, SJson> VALUES = new InterningCache<>(256);
+private static final int MAX_INTERNING_LENGTH = 32 * 1024;
+
 /**
  Convert to database column type.
 
  @param javaVal the {@code SJson}
  @return {@code javaVal} that converted to string representation of {@code SJson}. Returns
- {@code null} if {@code javaVal} is {@code null}.
+ {@code null} if {@code javaVal} is {@code null}. If {@code javaVal} is the value that retrieved from database, it is
+ the original string.
  @since 3.0.0
  */
 @Override
@@ -60,11 +65,12 @@ public String convertToDatabaseColumn(SJson javaVal) {
 }
 
 /**
- Convert to entity attribute type.
+ Convert to entity attribute type. Parsing is deferred until the value is unwrapped, so columns that are never
+ referenced are not parsed. Values retrieved from the same string may be the same instance.
 
  @param dbVal value ​​retrieved from database. It must be a string representation of {@code SJson}.
- @return {@code dbVal} as {@code SJson}. Returns {@code null} if {@code dbVal} is {@code null}.
- @throws JsonParsingException if {@code dbVal} is malformed as {@code SJson}
+ @return {@code dbVal} as {@code SJson}. Returns {@code null} if {@code dbVal} is {@code null}. It throws
+ {@link JsonParsingException} at the time of unwrap if {@code dbVal} is malformed as {@code SJson}.
  @since 3.0.0
  */
 @Override
@@ -73,9 +79,7 @@ public SJson convertToEntityAttribute(String dbVal) {
         return null;
     }
 
-    try (var r = Json.createReader(new StringReader(dbVal))) {
-        return SJson.of(r.readValue());
-    }
+    return dbVal.length() <= MAX_INTERNING_LENGTH ? VALUES.intern(dbVal, SJson::lazyOf) : SJson.lazyOf(dbVal);
 }
 
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import jp.mydns.projectk.safi.constant.JobTarget;
+import jp.mydns.projectk.safi.value.ContentMap;
+
+/**
+ Snapshot of the {@code ContentMap} per {@code JobTarget}. Saves the contents of the latest import, so that
+ the next import of the same target can be compared with it on local disk.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public interface ContentSnapshotService {
+
+/**
+ Get the directory of the snapshot. It is <i>snapshot/{target in lower case}</i> in the variable data
+ directory.
+
+ @param target the {@code JobTarget}
+ @return directory of the snapshot
+ @throws NullPointerException if {@code target} is {@code null}
+ @since 3.0.0
+ */
+Path getSnapshotDir(JobTarget target);
+
+/**
+ Save the snapshot of {@code target}. The previous snapshot is replaced.
+
+ @param target the {@code JobTarget}
+ @param contents the {@code ContentMap}
+ @throws NullPointerException if any argument is {@code null}
+ @throws IOException if occurs I/O error
+ @since 3.0.0
+ */
+void save(JobTarget target, ContentMap<?> contents) throws IOException;
+
+/**
+ Open the snapshot of {@code target}.
+
+ @param <T> content type
+ @param target the {@code JobTarget}
+ @param builder the {@code ContentMap.Builder} that has the converter, the storage mode and the index mode
+ @return the {@code ContentMap} of the snapshot. It is empty if the snapshot not exists.
+ @throws NullPointerException if any argument is {@code null}
+ @throws IOException if occurs I/O error, or if the snapshot is broken
+ @since 3.0.0
+ */
+<T> Optional<ContentMap<T>> open(JobTarget target, ContentMap.Builder<T> builder) throws IOException;
+
+/**
+ Implements of the {@code ContentSnapshotService}.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+@Typed(ContentSnapshotService.class)
+@ApplicationScoped
+class Impl implements ContentSnapshotService {
+
+private final ConfigService confSvc;
+
+@SuppressWarnings("unused")
+Impl() {
+    // Note: The default constructor exists only to allow NetBeans to recognize the CDI bean.
+    throw new UnsupportedOperationException();
+}
+
+@Inject
+@SuppressWarnings("unused")
+Impl(ConfigService confSvc) {
+    this.confSvc = confSvc;
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if {@code target} is {@code null}
+ @since 3.0.0
+ */
+@Override
+public Path getSnapshotDir(JobTarget target) {
+    return confSvc.getVarDir().resolve("snapshot").resolve(target.name().toLowerCase(Locale.ROOT));
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if any argument is {@code null}
+ @throws IOException if occurs I/O error
+ @since 3.0.0
+ */
+@Override
+public void save(JobTarget target, ContentMap<?> contents) throws IOException {
+    Objects.requireNonNull(contents).save(getSnapshotDir(target));
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if any argument is {@code null}
+ @throws IOException if occurs I/O error, or if the snapshot is broken
+ @since 3.0.0
+ */
+@Override
+public <T> Optional<ContentMap<T>> open(JobTarget target, ContentMap.Builder<T> builder) throws IOException {
+    Objects.requireNonNull(builder);
+
+    Path dir = getSnapshotDir(target);
+
+    if (!Files.isDirectory(dir)) {
+        return Optional.empty();
+    }
+
+    return Optional.of(builder.open(dir));
+}
+
+}
+
+}
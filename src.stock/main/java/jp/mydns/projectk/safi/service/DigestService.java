@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ Digest of the JSON content. It is a SHA-512 of the canonical JSON in lower case hexadecimal, so it fits the
+ {@code digest} column of content tables.
+
+ <p>
+ The canonical JSON has no whitespace, object members sorted by name in UTF-16 code unit order, strings escaped
+ only where JSON requires it, and numbers written in the shortest decimal form. Integral values are written without
+ exponent, unless it takes more than {@value Impl#MAX_PLAIN_EXPONENT} trailing zeros, in which case they are written in
+ the exponent form of {@link BigDecimal#toString()}, so the canonical text of a number is never much longer than its
+ input text. So two values that are equal as JSON have the same digest regardless of member order or number notation.
+ The canonical text is fed to the {@code MessageDigest} while walking the value, and is never built as a string.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public interface DigestService {
+
+/**
+ Compute a digest of the JSON value.
+
+ @param value the {@code JsonValue}
+ @return a digest of {@code value}. It is 128 characters in lower case hexadecimal.
+ @throws NullPointerException if {@code value} is {@code null}
+ @since 3.0.0
+ */
+String digest(JsonValue value);
+
+/**
+ Compute digests of the JSON values. Large batches are computed in parallel.
+
+ @param values the {@code JsonValue}s
+ @return digests of {@code values} in the same order
+ @throws NullPointerException if {@code values} is {@code null} or contains {@code null}
+ @since 3.0.0
+ */
+List<String> digestAll(List<? extends JsonValue> values);
+
+/**
+ Implements of the {@code DigestService}.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+@Typed(DigestService.class)
+@ApplicationScoped
+class Impl implements DigestService {
+
+// Note: Smaller batches finish sooner than the fork-join overhead.
+private static final int PARALLEL_THRESHOLD = 256;
+
+// Note: Bounds the trailing zeros of the plain form. Otherwise a number such as 1e999999999 expands to gigabytes.
+static final int MAX_PLAIN_EXPONENT = 100;
+
+private static final ThreadLocal<Digester> DIGESTERS = ThreadLocal.withInitial(Digester::new);
+
+@SuppressWarnings("unused")
+Impl() {
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if {@code value} is {@code null}
+ @since 3.0.0
+ */
+@Override
+public String digest(JsonValue value) {
+    return HexFormat.of().formatHex(DIGESTERS.get().digest(Objects.requireNonNull(value)));
+}
+
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if {@code values} is {@code null} or contains {@code null}
+ @since 3.0.0
+ */
+@Override
+public List<String> digestAll(List<? extends JsonValue> values) {
+    if (values.size() < PARALLEL_THRESHOLD) {
+        return values.stream().map(this::digest).toList();
+    }
+
+    return values.parallelStream().map(this::digest).toList();
+}
+
+/**
+ Writer of the canonical JSON into the {@code MessageDigest}. It is confined to a thread.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+private static class Digester {
+
+private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+private final MessageDigest md = newMessageDigest();
+private final byte[] buf = new byte[8192];
+private int pos;
+
+byte[] digest(JsonValue value) {
+    pos = 0;
+    md.reset();
+
+    write(value);
+
+    md.update(buf, 0, pos);
+    return md.digest();
+}
+
+private void write(JsonValue value) {
+    switch (value.getValueType()) {
+        case OBJECT ->
+            writeObject(value.asJsonObject());
+        case ARRAY ->
+            writeArray(value.asJsonArray());
+        case STRING ->
+            writeString(((JsonString) value).getString());
+        case NUMBER ->
+            writeNumber((JsonNumber) value);
+        case TRUE ->
+            writeAscii("true");
+        case FALSE ->
+            writeAscii("false");
+        case NULL ->
+            writeAscii("null");
+    }
+}
+
+private void writeObject(JsonObject obj) {
+    String[] names = obj.keySet().toArray(String[]::new);
+    Arrays.sort(names);
+
+    writeByte('{');
+
+    for (int i = 0; i < names.length; i++) {
+        if (i > 0) {
+            writeByte(',');
+        }
+
+        writeString(names[i]);
+        writeByte(':');
+        write(obj.get(names[i]));
+    }
+
+    writeByte('}');
+}
+
+private void writeArray(JsonArray array) {
+    writeByte('[');
+
+    for (int i = 0; i < array.size(); i++) {
+        if (i > 0) {
+            writeByte(',');
+        }
+
+        write(array.get(i));
+    }
+
+    writeByte(']');
+}
+
+private void writeNumber(JsonNumber num) {
+    if (num.isIntegral()) {
+        try {
+            writeLong(num.longValueExact());
+            return;
+        } catch (ArithmeticException ignore) {
+            // Note: Out of long range, so fall back to the BigDecimal.
+        }
+    }
+
+    BigDecimal d = num.bigDecimalValue().stripTrailingZeros();
+
+    writeAscii(d.scale() <= 0 && d.scale() >= -MAX_PLAIN_EXPONENT ? d.toPlainString() : d.toString());
+}
+
+private void writeLong(long v) {
+    if (v == Long.MIN_VALUE) {
+        writeAscii(Long.toString(v));
+        return;
+    }
+
+    if (v < 0) {
+        writeByte('-');
+        v = -v;
+    }
+
+    ensure(19);
+
+    int start = pos;
+
+    do {
+        buf[pos++] = (byte) ('0' + v % 10);
+        v /= 10;
+    } while (v != 0);
+
+    for (int i = start, j = pos - 1; i < j; i++, j--) {
+        byte b = buf[i];
+        buf[i] = buf[j];
+        buf[j] = b;
+    }
+}
+
+private void writeString(String s) {
+    writeByte('"');
+
+    for (int i = 0; i < s.length(); i++) {
+        char c = s.charAt(i);
+
+        if (c == '"' || c == '\\') {
+            writeByte('\\');
+            writeByte(c);
+        } else if (c < 0x20) {
+            writeControl(c);
+        } else if (c < 0x80) {
+            writeByte(c);
+        } else if (c < 0x800) {
+            ensure(2);
+            buf[pos++] = (byte) (0xc0 | c >> 6);
+            buf[pos++] = (byte) (0x80 | c & 0x3f);
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(++i));
+            ensure(4);
+            buf[pos++] = (byte) (0xf0 | cp >> 18);
+            buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3f);
+            buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3f);
+            buf[pos++] = (byte) (0x80 | cp & 0x3f);
+        } else if (Character.isSurrogate(c)) {
+            // Note: Same as String#getBytes(UTF_8) for a lone surrogate.
+            writeByte('?');
+        } else {
+            ensure(3);
+            buf[pos++] = (byte) (0xe0 | c >> 12);
+            buf[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+            buf[pos++] = (byte) (0x80 | c & 0x3f);
+        }
+    }
+
+    writeByte('"');
+}
+
+private void writeControl(char c) {
+    writeByte('\\');
+
+    switch (c) {
+        case '\b' ->
+            writeByte('b');
+        case '\f' ->
+            writeByte('f');
+        case '\n' ->
+            writeByte('n');
+        case '\r' ->
+            writeByte('r');
+        case '\t' ->
+            writeByte('t');
+        default -> {
+            ensure(5);
+            buf[pos++] = 'u';
+            buf[pos++] = '0';
+            buf[pos++] = '0';
+            buf[pos++] = HEX[c >> 4];
+            buf[pos++] = HEX[c & 0xf];
+        }
+    }
+}
+
+private void writeAscii(String s) {
+    for (int i = 0; i < s.length(); i++) {
+        writeByte(s.charAt(i));
+    }
+}
+
+private void writeByte(int b) {
+    ensure(1);
+    buf[pos++] = (byte) b;
+}
+
+private void ensure(int len) {
+    if (pos + len > buf.length) {
+        md.update(buf, 0, pos);
+        pos = 0;
+    }
+}
+
+private static MessageDigest newMessageDigest() {
+    try {
+        return MessageDigest.getInstance("SHA-512");
+    } catch (NoSuchAlgorithmException ex) {
+        // Note: Every Java platform is required to support SHA-512.
+        throw new IllegalStateException(ex);
+    }
+}
+
+}
+
+}
+
+}
@@ -32,8 +32,10 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonValue;
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.JsonbException;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
+import jp.mydns.projectk.safi.producer.JsonbProducer;
 import jp.mydns.projectk.safi.util.JsonValueUtils;
 import jp.mydns.projectk.safi.value.SJson;
 
@@ -81,6 +83,18 @@ JsonValue toJsonValue(Object value);
  */
 JsonObject merge(JsonObject base, JsonObject ow);
 
+/**
+ Merge {@code JsonObject}s in one pass. The result is same as merging each of {@code ows} in order by
+ {@link #merge(JsonObject, JsonObject)}.
+
+ @param base base value
+ @param ows overwrite values, in order of priority from lowest
+ @return merged value
+ @throws NullPointerException if any argument is {@code null} or if {@code ows} contains {@code null}
+ @since 3.0.0
+ */
+JsonObject merge(JsonObject base, List<JsonObject> ows);
+
 /**
  Conversion to {@code SJson}.
 
@@ -122,9 +136,10 @@ Impl() {
     throw new UnsupportedOperationException();
 }
 
+// Note: Without a client proxy, the JsonValue is built directly while serializing. See JsonValueUtils#toJsonValue.
 @Inject
 @SuppressWarnings("unused")
-Impl(Jsonb jsonb) {
+Impl(@JsonbProducer.Unproxied Jsonb jsonb) {
     this.jsonb = jsonb;
 }
 
@@ -163,6 +178,17 @@ public JsonObject merge(JsonObject base, JsonObject ow) {
     return JsonValueUtils.merge(Objects.requireNonNull(base), Objects.requireNonNull(ow));
 }
 
+/**
+ {@inheritDoc}
+
+ @throws NullPointerException if any argument is {@code null} or if {@code ows} contains {@code null}
+ @since 3.0.0
+ */
+@Override
+public JsonObject merge(JsonObject base, List<JsonObject> ows) {
+    return JsonValueUtils.merge(Objects.requireNonNull(base), Objects.requireNonNull(ows));
+}
+
 /**
  {@inheritDoc}
 
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ Utilities for detecting changes of contents.
+
+ <p>
+ Implementation requirements.
+ <ul>
+ <li>This class has not variable field member and it has all method is static.</li>
+ </ul>
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public final class DiffUtils {
+
+// Note: Same as ContentMap, and ContentDao orders ids by the binary of LOWER(id) to match it.
+private static final Comparator<String> ID_ORDER = String.CASE_INSENSITIVE_ORDER;
+
+private DiffUtils() {
+}
+
+/**
+ Detect changes from {@code stored} to {@code incoming} by comparing id and digest. Both are walked in
+ lock-step as a sort-merge join, so only the current entry of each side is held in memory. Each id is
+ compared by {@link String#CASE_INSENSITIVE_ORDER}.
+ <ul>
+ <li>An id only in {@code incoming} is {@link Change.Kind#INSERT}.</li>
+ <li>An id in both with different digest is {@link Change.Kind#UPDATE}.</li>
+ <li>An id only in {@code stored} is {@link Change.Kind#DELETE}.</li>
+ <li>An id in both with same digest is not emitted.</li>
+ </ul>
+ Closing the returned stream closes both {@code incoming} and {@code stored}.
+
+ @param incoming id and digest of new contents, in ascending order of id without duplicates. For
+ example, {@link jp.mydns.projectk.safi.value.ContentMap#digests()}.
+ @param stored id and digest of current contents, in ascending order of id without duplicates. For
+ example, {@link jp.mydns.projectk.safi.dao.ContentDao#getDigests(java.lang.Class, int)}.
+ @return lazily detected changes, in ascending order of id
+ @throws NullPointerException if any argument is {@code null}. Or if exists a {@code null} id or
+ digest when consuming the returned stream.
+ @throws IllegalStateException if either is not in ascending order of id when consuming the returned
+ stream. It happens when ids are ordered by a collation of the database, which may order some characters
+ differently from the lower case, such as {@code _} and letters.
+ @since 3.0.0
+ */
+public static Stream<Change> diff(Stream<? extends Map.Entry<String, String>> incoming,
+    Stream<? extends Map.Entry<String, String>> stored) {
+
+    var changes = new MergeIterator(Objects.requireNonNull(incoming).iterator(),
+        Objects.requireNonNull(stored).iterator());
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(changes, Spliterator.ORDERED
+        | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+        .onClose(incoming::close).onClose(stored::close);
+}
+
+/**
+ A change of one content.
+
+ <p>
+ Implementation requirements.
+ <ul>
+ <li>This class is immutable and thread-safe.</li>
+ </ul>
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public static final class Change {
+
+private final Kind kind;
+private final String id;
+
+/**
+ Constructor.
+
+ @param kind kind of change
+ @param id content id
+ @throws NullPointerException if any argument is {@code null}
+ @since 3.0.0
+ */
+public Change(Kind kind, String id) {
+    this.kind = Objects.requireNonNull(kind);
+    this.id = Objects.requireNonNull(id);
+}
+
+/**
+ Get kind of change.
+
+ @return kind of change
+ @since 3.0.0
+ */
+public Kind getKind() {
+    return kind;
+}
+
+/**
+ Get content id.
+
+ @return content id
+ @since 3.0.0
+ */
+public String getId() {
+    return id;
+}
+
+/**
+ Returns a hash code value.
+
+ @return a hash code value
+ @since 3.0.0
+ */
+@Override
+public int hashCode() {
+    return Objects.hash(kind, id);
+}
+
+/**
+ Indicates that other object is equal to this instance. Equality means that can be cast to this class
+ and each field is equal.
+
+ @param other an any object
+ @return {@code true} if equals, otherwise {@code false}.
+ @since 3.0.0
+ */
+@Override
+public boolean equals(Object other) {
+    return other instanceof Change o && kind == o.kind && id.equals(o.id);
+}
+
+/**
+ Returns a string representation.
+
+ @return a string representation
+ @since 3.0.0
+ */
+@Override
+public String toString() {
+    return "Change{" + "kind=" + kind + ", id=" + id + '}';
+}
+
+/**
+ Kind of change.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+public enum Kind {
+    /**
+     Content to be inserted.
+
+     @since 3.0.0
+     */
+    INSERT,
+    /**
+     Content to be updated.
+
+     @since 3.0.0
+     */
+    UPDATE,
+    /**
+     Content to be deleted.
+
+     @since 3.0.0
+     */
+    DELETE
+}
+
+}
+
+private static class MergeIterator implements Iterator<Change> {
+
+private final OrderedCursor incoming;
+private final OrderedCursor stored;
+private boolean started;
+private Change next;
+
+private MergeIterator(Iterator<? extends Map.Entry<String, String>> incoming,
+    Iterator<? extends Map.Entry<String, String>> stored) {
+    this.incoming = new OrderedCursor(incoming, "incoming");
+    this.stored = new OrderedCursor(stored, "stored");
+}
+
+@Override
+public boolean hasNext() {
+    if (!started) {
+        // Note: Fetch the first entries lazily, so that no query runs until the stream is consumed.
+        incoming.advance();
+        stored.advance();
+        started = true;
+    }
+
+    while (next == null && (incoming.current != null || stored.current != null)) {
+        int cmp = incoming.current == null ? 1
+            : stored.current == null ? -1
+            : ID_ORDER.compare(incoming.current.getKey(), stored.current.getKey());
+
+        if (cmp < 0) {
+            next = new Change(Change.Kind.INSERT, incoming.current.getKey());
+            incoming.advance();
+        } else if (cmp > 0) {
+            next = new Change(Change.Kind.DELETE, stored.current.getKey());
+            stored.advance();
+        } else {
+            if (!incoming.current.getValue().equalsIgnoreCase(stored.current.getValue())) {
+                next = new Change(Change.Kind.UPDATE, incoming.current.getKey());
+            }
+
+            incoming.advance();
+            stored.advance();
+        }
+    }
+
+    return next != null;
+}
+
+@Override
+public Change next() {
+    if (!hasNext()) {
+        throw new NoSuchElementException();
+    }
+
+    Change change = next;
+    next = null;
+
+    return change;
+}
+
+}
+
+private static class OrderedCursor {
+
+private final Iterator<? extends Map.Entry<String, String>> entries;
+private final String name;
+private Map.Entry<String, String> current;
+
+private OrderedCursor(Iterator<? extends Map.Entry<String, String>> entries, String name) {
+    this.entries = entries;
+    this.name = name;
+}
+
+private void advance() {
+    Map.Entry<String, String> prev = current;
+
+    current = fetch();
+
+    if (prev != null && current != null && ID_ORDER.compare(prev.getKey(), current.getKey()) >= 0) {
+        throw new IllegalStateException("The %s contents are not in ascending order of id. [%s] is after [%s]."
+            .formatted(name, current.getKey(), prev.getKey()));
+    }
+}
+
+private Map.Entry<String, String> fetch() {
+    if (!entries.hasNext()) {
+        return null;
+    }
+
+    Map.Entry<String, String> entry = entries.next();
+
+    Objects.requireNonNull(entry.getKey());
+    Objects.requireNonNull(entry.getValue());
+
+    return entry;
+}
+}
+
+}
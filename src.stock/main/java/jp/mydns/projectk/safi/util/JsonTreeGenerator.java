@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.util;
+
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerationException;
+import jakarta.json.stream.JsonGenerator;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * The {@link JsonGenerator} that builds a {@link JsonValue} tree instead of writing JSON text. Generate exactly one
+ * JSON value, and then get it by {@link #getResult()}.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is not thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+final class JsonTreeGenerator implements JsonGenerator {
+
+    private static final JsonProvider PROVIDER = JsonProvider.provider();
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private JsonValue result;
+
+    /**
+     * Get the generated JSON value.
+     *
+     * @return the generated JSON value
+     * @throws JsonGenerationException if JSON value is incomplete
+     * @since 3.0.0
+     */
+    JsonValue getResult() {
+        if (result == null || !frames.isEmpty()) {
+            throw new JsonGenerationException("Incomplete JSON.");
+        }
+
+        return result;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+        frames.push(new Frame(PROVIDER.createObjectBuilder(), null, takeKey()));
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(String name) {
+        requireObjectMember(name);
+        frames.push(new Frame(PROVIDER.createObjectBuilder(), null, name));
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeKey(String name) {
+        requireObjectMember(name);
+        frames.peek().pendingKey = name;
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+        frames.push(new Frame(null, PROVIDER.createArrayBuilder(), takeKey()));
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(String name) {
+        requireObjectMember(name);
+        frames.push(new Frame(null, PROVIDER.createArrayBuilder(), name));
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(String name, JsonValue value) {
+        return addMember(name, Objects.requireNonNull(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, String value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, BigInteger value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, BigDecimal value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, int value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, long value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, double value) {
+        return addMember(name, PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(String name, boolean value) {
+        return addMember(name, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonGenerator writeNull(String name) {
+        return addMember(name, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+        Frame frame = frames.peek();
+
+        if (frame == null || frame.pendingKey != null) {
+            throw new JsonGenerationException("Invalid context for writing end.");
+        }
+
+        frames.pop();
+
+        return add(frame.keyInParent, frame.build());
+    }
+
+    @Override
+    public JsonGenerator write(JsonValue value) {
+        return add(takeKey(), Objects.requireNonNull(value));
+    }
+
+    @Override
+    public JsonGenerator write(String value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(BigDecimal value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(BigInteger value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(int value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(long value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(double value) {
+        return add(takeKey(), PROVIDER.createValue(value));
+    }
+
+    @Override
+    public JsonGenerator write(boolean value) {
+        return add(takeKey(), value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+        return add(takeKey(), JsonValue.NULL);
+    }
+
+    /**
+     * Do nothing, because nothing is written.
+     *
+     * @throws JsonGenerationException if JSON value is incomplete
+     * @since 3.0.0
+     */
+    @Override
+    public void close() {
+        getResult();
+    }
+
+    /**
+     * Do nothing, because nothing is written.
+     *
+     * @since 3.0.0
+     */
+    @Override
+    public void flush() {
+        // Note: Do nothing.
+    }
+
+    // Note: Takes the key of a value written without name. It is null in array context or in root context.
+    private String takeKey() {
+        Frame frame = frames.peek();
+
+        if (frame == null) {
+            if (result != null) {
+                throw new JsonGenerationException("JSON value is already completed.");
+            }
+
+            return null;
+        }
+
+        if (frame.object == null) {
+            return null;
+        }
+
+        if (frame.pendingKey == null) {
+            throw new JsonGenerationException("Invalid context for writing value without name.");
+        }
+
+        String key = frame.pendingKey;
+        frame.pendingKey = null;
+
+        return key;
+    }
+
+    private void requireObjectMember(String name) {
+        Objects.requireNonNull(name);
+
+        Frame frame = frames.peek();
+
+        if (frame == null || frame.object == null || frame.pendingKey != null) {
+            throw new JsonGenerationException("Invalid context for writing name.");
+        }
+    }
+
+    private JsonGenerator addMember(String name, JsonValue value) {
+        requireObjectMember(name);
+        return add(name, value);
+    }
+
+    private JsonGenerator add(String name, JsonValue value) {
+        Frame frame = frames.peek();
+
+        if (frame == null) {
+            result = value;
+        } else if (frame.object == null) {
+            frame.array.add(value);
+        } else {
+            if (name == null) {
+                throw new JsonGenerationException("Invalid context for writing value without name.");
+            }
+
+            frame.object.add(name, value);
+        }
+
+        return this;
+    }
+
+    private static class Frame {
+
+        private final JsonObjectBuilder object;
+        private final JsonArrayBuilder array;
+        private final String keyInParent;
+        private String pendingKey;
+
+        private Frame(JsonObjectBuilder object, JsonArrayBuilder array, String keyInParent) {
+            this.object = object;
+            this.array = array;
+            this.keyInParent = keyInParent;
+        }
+
+        private JsonValue build() {
+            return object != null ? object.build() : array.build();
+        }
+    }
+}
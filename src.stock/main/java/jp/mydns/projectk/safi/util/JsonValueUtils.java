@@ -28,28 +28,33 @@ package jp.mydns.projectk.safi.util;
 import jakarta.json.Json;
 import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import jakarta.json.JsonValue.ValueType;
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.JsonbException;
-import jakarta.json.stream.JsonCollectors;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
-import static java.util.function.Function.identity;
 import java.util.function.Predicate;
-import static java.util.function.Predicate.not;
 import java.util.stream.Stream;
-import static jp.mydns.projectk.safi.util.LambdaUtils.p;
 
 /**
  * Utilities for {@link JsonValue}.
@@ -66,6 +71,30 @@ import static jp.mydns.projectk.safi.util.LambdaUtils.p;
  */
 public class JsonValueUtils {
 
+    // Note: Method "toJson(Object, JsonGenerator)" of a public interface that the Jsonb implementation has. It is not
+    //       a part of JSON-B API, so it is looked up reflectively to keep the implementation out of compile scope.
+    private static final ClassValue<Optional<MethodHandle>> GENERATOR_SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> type) {
+            return interfacesOf(type).filter(i -> Modifier.isPublic(i.getModifiers())).map(i -> {
+                try {
+                    return MethodHandles.publicLookup().findVirtual(i, "toJson",
+                        MethodType.methodType(void.class, Object.class, JsonGenerator.class));
+                } catch (NoSuchMethodException | IllegalAccessException ex) {
+                    return null;
+                }
+            }).filter(Objects::nonNull).findFirst();
+        }
+
+        private Stream<Class<?>> interfacesOf(Class<?> type) {
+            return Stream.<Class<?>>iterate(type, Objects::nonNull, Class::getSuperclass)
+                .flatMap(c -> Stream.of(c.getInterfaces()))
+                .flatMap(i -> Stream.concat(Stream.of(i), interfacesOf(i)));
+        }
+    };
+
+    private static final JsonProvider PROVIDER = JsonProvider.provider();
+
     private JsonValueUtils() {
     }
 
@@ -183,7 +212,10 @@ public class JsonValueUtils {
     }
 
     /**
-     * Conversion to {@code JsonValue}.
+     * Conversion to {@code JsonValue}. If the {@code Jsonb} implementation can serialize into a {@code JsonGenerator},
+     * such as Yasson, the {@code JsonValue} is built directly while serializing. Otherwise, it is serialized to JSON
+     * text and parsed. A client proxy of a normal scoped {@code Jsonb} bean exposes only the {@code Jsonb} interface,
+     * so pass the {@code Jsonb} that is injected without a client proxy.
      *
      * @param value conversion source
      * @param jsonb the {@code Jsonb}
@@ -193,7 +225,26 @@ public class JsonValueUtils {
      * @since 3.0.0
      */
     public static JsonValue toJsonValue(Object value, Jsonb jsonb) {
-        return jsonb.fromJson(Objects.requireNonNull(jsonb).toJson(Objects.requireNonNull(value)), JsonValue.class);
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(jsonb);
+
+        MethodHandle toJson = GENERATOR_SERIALIZERS.get(jsonb.getClass()).orElse(null);
+
+        if (toJson == null) {
+            return jsonb.fromJson(jsonb.toJson(value), JsonValue.class);
+        }
+
+        var generator = new JsonTreeGenerator();
+
+        try {
+            toJson.invoke(jsonb, value, generator);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new JsonbException(ex.getMessage(), ex);
+        }
+
+        return generator.getResult();
     }
 
     /**
@@ -233,26 +284,101 @@ public class JsonValueUtils {
      * @since 3.0.0
      */
     public static JsonObject merge(JsonObject base, JsonObject ow) {
+        return merge(base, List.of(ow));
+    }
+
+    /**
+     * Merge {@code JsonObject}s. The result is same as merging each of {@code ows} in order by
+     * {@link #merge(JsonObject, JsonObject)}, but all are walked once without building intermediate objects. Values
+     * that are not overwritten are reused by reference.
+     *
+     * <p>
+     * Order of the keys is same as merging in order, that is each merge orders the keys of {@code base} that are not
+     * in {@code ow}, then the keys that are deep merged, then the other keys of {@code ow}.
+     *
+     * @param base base value
+     * @param ows overwrite values, in order of priority from lowest
+     * @return merged value. It is {@code base} itself if all of {@code ows} are empty.
+     * @throws NullPointerException if any argument is {@code null} or if {@code ows} contains {@code null}
+     * @since 3.0.0
+     */
+    public static JsonObject merge(JsonObject base, List<JsonObject> ows) {
         Objects.requireNonNull(base);
-        Objects.requireNonNull(ow);
 
-        Predicate<String> canMerge = k -> Stream.of(base, ow)
-            .map(m -> m.get(k)).allMatch(JsonObject.class::isInstance);
+        boolean unchanged = true;
 
-        Function<String, Entry<String, JsonValue>> toMerged = k -> Map.entry(
-            k, merge(base.getJsonObject(k), ow.getJsonObject(k)));
+        for (JsonObject ow : ows) {
+            unchanged &= Objects.requireNonNull(ow).isEmpty();
+        }
 
-        Stream<Entry<String, JsonValue>> originEntries = base.entrySet().stream()
-            .filter(not(p(ow::containsKey, Entry::getKey)));
+        if (unchanged) {
+            return base;
+        }
 
-        Stream<Entry<String, JsonValue>> mergedEntries = ow.keySet().stream()
-            .filter(canMerge).map(toMerged);
+        Map<String, MergeSlot> slots = new LinkedHashMap<>();
 
-        Stream<Entry<String, JsonValue>> owEntries = ow.entrySet().stream()
-            .filter(not(p(canMerge, Entry::getKey)))
-            .filter(not(p(JsonValue.NULL::equals, Entry::getValue)));
+        for (Entry<String, JsonValue> e : base.entrySet()) {
+            slots.put(e.getKey(), new MergeSlot(e.getValue()));
+        }
+
+        for (JsonObject ow : ows) {
+            // Note: Re-insert in the merged order. The deep merged keys first, then the other keys.
+            for (Entry<String, JsonValue> e : ow.entrySet()) {
+                MergeSlot slot = slots.get(e.getKey());
+
+                if (slot != null && slot.canMerge(e.getValue())) {
+                    slots.remove(e.getKey());
+                    slot.pend(e.getValue().asJsonObject());
+                    slots.put(e.getKey(), slot);
+                }
+            }
+
+            for (Entry<String, JsonValue> e : ow.entrySet()) {
+                MergeSlot slot = slots.get(e.getKey());
+
+                if (slot == null || !slot.canMerge(e.getValue())) {
+                    slots.remove(e.getKey());
+
+                    if (e.getValue().getValueType() != ValueType.NULL) {
+                        slots.put(e.getKey(), new MergeSlot(e.getValue()));
+                    }
+                }
+            }
+        }
+
+        JsonObjectBuilder merged = PROVIDER.createObjectBuilder();
+
+        for (Entry<String, MergeSlot> e : slots.entrySet()) {
+            merged.add(e.getKey(), e.getValue().merged());
+        }
+
+        return merged.build();
+    }
+
+    // Note: A value of the key and overwrite values to be deep merged into it.
+    private static class MergeSlot {
+
+        private final JsonValue value;
+        private List<JsonObject> pendings;
 
-        return Stream.of(originEntries, mergedEntries, owEntries).flatMap(identity())
-            .collect(JsonCollectors.toJsonObject());
+        private MergeSlot(JsonValue value) {
+            this.value = value;
+        }
+
+        private boolean canMerge(JsonValue ow) {
+            return value.getValueType() == ValueType.OBJECT && ow.getValueType() == ValueType.OBJECT;
+        }
+
+        private void pend(JsonObject ow) {
+            if (pendings == null) {
+                pendings = new ArrayList<>(2);
+            }
+
+            pendings.add(ow);
+        }
+
+        private JsonValue merged() {
+            return pendings == null ? value : merge(value.asJsonObject(), pendings);
+        }
     }
 }
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiled transform definition. Each transform expression is parsed once into a program of segments, that is
+ * literals, references to input values and function calls, and a record is transformed by running the programs.
+ *
+ * <p>
+ * Syntax of the transform expression. See {@link JobdefValue#getTrnsdef()} for details.
+ * <ul>
+ * <li>Literal element: {@code `literal-value`}. A character prefixed with {@code \} is taken as it is.</li>
+ * <li>Input element: {@code [input-value-name]}.</li>
+ * <li>Function element: {@code func(arg, arg)}. The argument is any kind of the element.</li>
+ * <li>Elements joiner: {@code &}, which concatenates the values before and after it.</li>
+ * </ul>
+ *
+ * <p>
+ * Functions.
+ * <ul>
+ * <li>{@code TRIM(value)} trims leading and trailing spaces.</li>
+ * <li>{@code LPAD(value, length, padding-char)} pads to the left with {@code padding-char} until {@code length}. The
+ * {@code length} is from 0 to 4096.</li>
+ * <li>{@code toTitleCase(value)} makes the first letter of each word title case, and the others lower case.</li>
+ * </ul>
+ *
+ * <p>
+ * Input values are resolved into slots once per record, and all programs write into a {@code StringBuilder} reused by
+ * each thread, so a record is transformed with an allocation of only the output values. A missing input value and
+ * JSON {@code null} are taken as an empty string, and an input value other than a string is taken as its JSON text.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public final class CompiledTrnsdef {
+
+    private final String[] outputs;
+    private final Segment[] programs;
+    private final String[] inputs;
+    private final ThreadLocal<Buffer> buffers;
+
+    private CompiledTrnsdef(String[] outputs, Segment[] programs, String[] inputs) {
+        this.outputs = outputs;
+        this.programs = programs;
+        this.inputs = inputs;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffer(inputs.length));
+    }
+
+    /**
+     * Compile the transform definition.
+     *
+     * @param trnsdef the transform definition. The key is the property name after transformation, and the value is
+     * the transform expression.
+     * @return compiled {@code trnsdef}
+     * @throws NullPointerException if {@code trnsdef} is {@code null}, or if it contains {@code null}
+     * @throws IllegalArgumentException if any transform expression is invalid
+     * @since 3.0.0
+     */
+    public static CompiledTrnsdef compile(Map<String, String> trnsdef) {
+        Objects.requireNonNull(trnsdef);
+
+        Map<String, Integer> slots = new LinkedHashMap<>();
+
+        String[] outputs = new String[trnsdef.size()];
+        Segment[] programs = new Segment[trnsdef.size()];
+
+        int i = 0;
+
+        for (Map.Entry<String, String> e : trnsdef.entrySet()) {
+            outputs[i] = Objects.requireNonNull(e.getKey());
+            programs[i++] = new Parser(Objects.requireNonNull(e.getValue()), slots).parse();
+        }
+
+        return new CompiledTrnsdef(outputs, programs, slots.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Transform the record.
+     *
+     * @param record the {@code JsonObject}
+     * @return transformed values in the order of the transform definition
+     * @throws NullPointerException if {@code record} is {@code null}
+     * @throws IllegalArgumentException if an argument of a function is invalid
+     * @since 3.0.0
+     */
+    public Map<String, String> apply(JsonObject record) {
+        Objects.requireNonNull(record);
+
+        Buffer buf = buffers.get();
+
+        for (int i = 0; i < inputs.length; i++) {
+            buf.values[i] = toText(record.get(inputs[i]));
+        }
+
+        Map<String, String> result = LinkedHashMap.newLinkedHashMap(outputs.length);
+
+        for (int i = 0; i < outputs.length; i++) {
+            buf.sb.setLength(0);
+            programs[i].appendTo(buf.sb, buf.values);
+            result.put(outputs[i], buf.sb.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Get names of input values referenced by the transform definition, in the order they first appear.
+     *
+     * @return names of input values
+     * @since 3.0.0
+     */
+    public List<String> getInputNames() {
+        return List.of(inputs);
+    }
+
+    /**
+     * Returns a string representation.
+     *
+     * @return a string representation
+     * @since 3.0.0
+     */
+    @Override
+    public String toString() {
+        return "CompiledTrnsdef{outputs=" + List.of(outputs) + ", inputs=" + List.of(inputs) + "}";
+    }
+
+    private static String toText(JsonValue v) {
+        if (v == null || v.getValueType() == JsonValue.ValueType.NULL) {
+            return "";
+        }
+
+        return v instanceof JsonString s ? s.getString() : v.toString();
+    }
+
+    /**
+     * Buffer of a thread.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Buffer {
+
+        private final StringBuilder sb = new StringBuilder(256);
+        private final String[] values;
+
+        Buffer(int slots) {
+            this.values = new String[slots];
+        }
+    }
+
+    /**
+     * Segment of the program. It appends its value to the buffer.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private interface Segment {
+
+        void appendTo(StringBuilder sb, String[] values);
+    }
+
+    private record Literal(String text) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            sb.append(text);
+        }
+    }
+
+    private record Input(int slot) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            sb.append(values[slot]);
+        }
+    }
+
+    private record Join(Segment[] segments) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            for (Segment s : segments) {
+                s.appendTo(sb, values);
+            }
+        }
+    }
+
+    private record Trim(Segment arg) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            int mark = sb.length();
+
+            arg.appendTo(sb, values);
+
+            int end = sb.length();
+
+            while (end > mark && sb.charAt(end - 1) <= ' ') {
+                end--;
+            }
+
+            sb.setLength(end);
+
+            int begin = mark;
+
+            while (begin < end && sb.charAt(begin) <= ' ') {
+                begin++;
+            }
+
+            sb.delete(mark, begin);
+        }
+    }
+
+    private record TitleCase(Segment arg) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            int mark = sb.length();
+
+            arg.appendTo(sb, values);
+
+            boolean head = true;
+
+            for (int i = mark; i < sb.length(); i++) {
+                char c = sb.charAt(i);
+
+                if (Character.isWhitespace(c)) {
+                    head = true;
+                } else {
+                    sb.setCharAt(i, head ? Character.toTitleCase(c) : Character.toLowerCase(c));
+                    head = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code LPAD} function whose length and padding character are given as literals. They are resolved once at compile
+     * time.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private record ConstLpad(Segment arg, int length, char padding) implements Segment {
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            int mark = sb.length();
+
+            arg.appendTo(sb, values);
+
+            Lpad.pad(sb, mark, length, padding);
+        }
+    }
+
+    /**
+     * {@code LPAD} function whose length or padding character is given by other than a literal. They are resolved for
+     * each record.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private record Lpad(Segment arg, Segment length, Segment padding) implements Segment {
+
+        /**
+         * Max length of {@code LPAD}. It prevents a huge string from being allocated for each record.
+         *
+         * @since 3.0.0
+         */
+        static final int MAX_LENGTH = 4_096;
+
+        @Override
+        public void appendTo(StringBuilder sb, String[] values) {
+            int len = toLength(evaluate(length, sb, values));
+            char pad = toPadding(evaluate(padding, sb, values));
+
+            int mark = sb.length();
+
+            arg.appendTo(sb, values);
+
+            pad(sb, mark, len, pad);
+        }
+
+        private static String evaluate(Segment segment, StringBuilder sb, String[] values) {
+            int mark = sb.length();
+
+            segment.appendTo(sb, values);
+
+            String value = sb.substring(mark);
+
+            sb.setLength(mark);
+
+            return value;
+        }
+
+        // Note: Shifts the value appended after mark and fills the gap, without allocating the padding string.
+        static void pad(StringBuilder sb, int mark, int length, char padding) {
+            int valueLength = sb.length() - mark;
+            int shortage = length - valueLength;
+
+            if (shortage <= 0) {
+                return;
+            }
+
+            sb.setLength(mark + length);
+
+            for (int i = valueLength - 1; i >= 0; i--) {
+                sb.setCharAt(mark + shortage + i, sb.charAt(mark + i));
+            }
+
+            for (int i = 0; i < shortage; i++) {
+                sb.setCharAt(mark + i, padding);
+            }
+        }
+
+        static int toLength(String value) {
+            try {
+                int len = Integer.parseInt(value.strip());
+
+                if (len >= 0 && len <= MAX_LENGTH) {
+                    return len;
+                }
+            } catch (NumberFormatException ignore) {
+            }
+
+            throw new IllegalArgumentException("Length of LPAD must be an integer from 0 to " + MAX_LENGTH + ". "
+                + value);
+        }
+
+        static char toPadding(String value) {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("Padding of LPAD must be a character. " + value);
+            }
+
+            return value.charAt(0);
+        }
+    }
+
+    /**
+     * Parser of the transform expression.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Parser {
+
+        private final String src;
+        private final Map<String, Integer> slots;
+        private int pos;
+
+        Parser(String src, Map<String, Integer> slots) {
+            this.src = src;
+            this.slots = slots;
+        }
+
+        Segment parse() {
+            List<Segment> segments = new ArrayList<>();
+
+            do {
+                skipSpaces();
+                segments.add(element());
+                skipSpaces();
+            } while (accept('&'));
+
+            if (pos < src.length()) {
+                throw error("Expected joiner '&'.");
+            }
+
+            return segments.size() == 1 ? segments.getFirst() : new Join(segments.toArray(Segment[]::new));
+        }
+
+        private Segment element() {
+            if (pos >= src.length()) {
+                throw error("Expected element.");
+            }
+
+            return switch (src.charAt(pos)) {
+                case '`' ->
+                    literal();
+                case '[' ->
+                    input();
+                default ->
+                    function();
+            };
+        }
+
+        private Segment literal() {
+            StringBuilder sb = new StringBuilder();
+
+            for (pos++; pos < src.length(); pos++) {
+                char c = src.charAt(pos);
+
+                if (c == '`') {
+                    pos++;
+                    return new Literal(sb.toString());
+                }
+
+                if (c == '\\' && pos + 1 < src.length()) {
+                    c = src.charAt(++pos);
+                }
+
+                sb.append(c);
+            }
+
+            throw error("Unclosed literal.");
+        }
+
+        private Segment input() {
+            int end = src.indexOf(']', pos);
+
+            if (end < 0) {
+                throw error("Unclosed input.");
+            }
+
+            String name = src.substring(pos + 1, end);
+
+            pos = end + 1;
+
+            return new Input(slots.computeIfAbsent(name, k -> slots.size()));
+        }
+
+        private Segment function() {
+            int begin = pos;
+
+            while (pos < src.length() && Character.isJavaIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+
+            String name = src.substring(begin, pos);
+
+            if (name.isEmpty()) {
+                throw error("Expected element.");
+            }
+
+            skipSpaces();
+
+            if (!accept('(')) {
+                throw error("Expected '(' after function name.");
+            }
+
+            List<Segment> args = new ArrayList<>();
+
+            do {
+                skipSpaces();
+                args.add(element());
+                skipSpaces();
+            } while (accept(','));
+
+            if (!accept(')')) {
+                throw error("Expected ')'.");
+            }
+
+            return switch (name) {
+                case "TRIM" ->
+                    new Trim(single(name, args));
+                case "toTitleCase" ->
+                    new TitleCase(single(name, args));
+                case "LPAD" ->
+                    lpad(args);
+                default ->
+                    throw error("Unknown function " + name + ".");
+            };
+        }
+
+        private Segment single(String name, List<Segment> args) {
+            if (args.size() != 1) {
+                throw error(name + " requires 1 argument.");
+            }
+
+            return args.getFirst();
+        }
+
+        private Segment lpad(List<Segment> args) {
+            if (args.size() != 3) {
+                throw error("LPAD requires 3 arguments.");
+            }
+
+            if (args.get(1) instanceof Literal len && args.get(2) instanceof Literal pad) {
+                return new ConstLpad(args.get(0), Lpad.toLength(len.text()), Lpad.toPadding(pad.text()));
+            }
+
+            if (args.get(1) instanceof Literal len) {
+                Lpad.toLength(len.text());
+            }
+
+            if (args.get(2) instanceof Literal pad) {
+                Lpad.toPadding(pad.text());
+            }
+
+            return new Lpad(args.get(0), args.get(1), args.get(2));
+        }
+
+        private boolean accept(char c) {
+            if (pos < src.length() && src.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " At " + pos + " of transform expression: " + src);
+        }
+    }
+}
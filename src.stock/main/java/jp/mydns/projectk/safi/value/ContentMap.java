@@ -25,24 +25,61 @@
  */
 package jp.mydns.projectk.safi.value;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * A container that stores a large amount of content. Used to store large amounts of content that causes out of memory.
@@ -50,6 +87,26 @@ import java.util.stream.Stream;
  * excluded. This class creates a working file. It will be deleted on close.
  *
  * <p>
+ * How the working file is read is selected by {@link StorageMode}. The {@link StorageMode#RANDOM_ACCESS} reads through
+ * one file handle, so concurrent reads are serialized. The {@link StorageMode#MEMORY_MAPPED} maps the working file
+ * into memory, so concurrent reads proceed without a lock.
+ *
+ * <p>
+ * When built with {@link Builder#withDigest(Function)}, a digest of each content is computed while it is written and
+ * kept in the index. The digest is computed from the content value, not from its serialized form, so it does not depend
+ * on the convertor. With the canonical JSON digest of {@code DigestService}, it can be compared with the {@code digest}
+ * column of content tables without reading and de-serializing the content.
+ *
+ * <p>
+ * A {@code ContentMap} can be saved as a snapshot by {@link #save(Path)}, and reopened by {@link Builder#open(Path)}
+ * without building again. A reopened {@code ContentMap} reads the snapshot directly, so it does not delete the snapshot
+ * on close.
+ *
+ * <p>
+ * When built with {@link Builder#withCache(int)}, values got by {@link #get(String)} are cached after de-serialized.
+ * Since a cached value is shared by every caller, the content type should be immutable.
+ *
+ * <p>
  * Implementation requirements.
  * <ul>
  * <li>This class is immutable and thread-safe.</li>
@@ -62,14 +119,20 @@ import java.util.stream.Stream;
  */
 public class ContentMap<T> implements Closeable {
 
-    private final Map<String, Point> points = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    private final Map<String, List<Point>> duplicates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Index index;
+    private final Map<String, List<Point>> duplicates;
     private final Path tmpFile;
-    private final RandomAccessFile storage;
-    private final Convertor<T> converter;
+    private final long tmpFileLength;
+    private final boolean temporary;
+    private final StorageMode storageMode;
+    private final Storage storage;
+    private final BinaryConvertor<T> converter;
+    private final boolean digested;
+    private final Function<? super T, String> digester;
+    private final StripedCache<Long, T> cache;
 
     /**
-     * Constructor.
+     * Constructor. The working file is read by {@link StorageMode#RANDOM_ACCESS}.
      *
      * @param contents id and value of content
      * @param tmpDir where to save temporary files
@@ -79,48 +142,282 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public ContentMap(Iterator<Entry<String, T>> contents, Path tmpDir, Convertor<T> converter) throws IOException {
+        this(contents, tmpDir, converter, StorageMode.RANDOM_ACCESS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param contents id and value of content
+     * @param tmpDir where to save temporary files
+     * @param converter the {@code Convertor}
+     * @param storageMode how to read the working file
+     * @throws IOException if occurs I/O error
+     * @throws NullPointerException if any argument is {@code null} or if exists a {@code null} in {@code contents}
+     * @since 3.0.0
+     */
+    public ContentMap(Iterator<Entry<String, T>> contents, Path tmpDir, Convertor<T> converter,
+        StorageMode storageMode) throws IOException {
+        this(contents, tmpDir, new Builder<>(converter).withStorageMode(storageMode));
+    }
+
+    private ContentMap(Iterator<Entry<String, T>> contents, Path tmpDir, Builder<T> builder) throws IOException {
         Objects.requireNonNull(contents);
 
-        this.converter = Objects.requireNonNull(converter);
+        this.storageMode = builder.storageMode;
+        this.converter = builder.converter;
+        this.digester = builder.digester;
+        this.digested = digester != null;
+        this.cache = builder.cacheSize > 0 ? new StripedCache<>(builder.cacheSize, FrequencySketch::new) : null;
+        this.temporary = true;
         this.tmpFile = Files.createTempFile(Objects.requireNonNull(tmpDir), null, null);
 
-        long offset = 0;
+        IndexBuilder indexBuilder = newIndexBuilder(builder.indexMode, digested);
 
         try (var os = Files.newOutputStream(tmpFile); var bos = new BufferedOutputStream(os);) {
 
-            while (contents.hasNext()) {
-                // Write one content.
-                Entry<String, T> e = contents.next();
-                byte[] content = converter.serialize(e.getValue()).getBytes(StandardCharsets.UTF_8);
-                bos.write(content);
-
-                Point point = new Point(offset, offset + content.length);
-                String key = e.getKey();
-
-                if (duplicates.containsKey(key)) {
-                    duplicates.compute(key, (k, v) -> {
-                        v.add(point);
-                        return v;
-                    });
-                } else {
-                    Optional.ofNullable(points.put(key, point)).ifPresent(p -> {
-                        var dupPoints = new ArrayList<Point>();
-
-                        dupPoints.add(p);
-                        dupPoints.add(points.remove(key));
-
-                        duplicates.put(key, dupPoints);
-                    });
-                }
+            SpillWriter writer = builder.compressionBlockSize > 0
+                ? new BlockSpillWriter(bos, builder.compressionBlockSize)
+                : new PlainSpillWriter(bos);
 
-                offset = point.to;
+            if (builder.parallelism > 1) {
+                writePipelined(contents, writer, indexBuilder, builder);
+            } else {
+                write(contents, writer, indexBuilder);
             }
+
+            writer.flush();
+            bos.flush();
+
+            this.tmpFileLength = Files.size(tmpFile);
+            this.index = indexBuilder.build();
+            this.duplicates = indexBuilder.duplicates();
+            this.storage = writer.open(openStorage(tmpFile, storageMode));
         } catch (IOException | RuntimeException ex) {
             Files.deleteIfExists(tmpFile);
             throw ex;
         }
+    }
+
+    private ContentMap(Path snapshotDir, Builder<T> builder) throws IOException {
+        this.storageMode = builder.storageMode;
+        this.converter = builder.converter;
+        this.cache = builder.cacheSize > 0 ? new StripedCache<>(builder.cacheSize, FrequencySketch::new) : null;
+        this.temporary = false;
+        this.tmpFile = snapshotDir.resolve(SNAPSHOT_CONTENTS);
+        this.duplicates = Map.of();
+
+        long stamp;
+
+        try (var is = Files.newInputStream(snapshotDir.resolve(SNAPSHOT_INDEX));
+            var dis = new DataInputStream(new BufferedInputStream(is));) {
+
+            if (dis.readInt() != SNAPSHOT_MAGIC || dis.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a snapshot of ContentMap.");
+            }
+
+            stamp = dis.readLong();
+            this.tmpFileLength = dis.readLong();
+            this.digested = dis.readBoolean();
+            this.digester = null;
+
+            int blocks = dis.readInt();
+            long[] blockOffsets = null;
+            int[] blockLengths = null;
+
+            if (blocks >= 0) {
+                blockOffsets = new long[blocks + 1];
+                blockLengths = new int[blocks];
+
+                for (int i = 0; i <= blocks; i++) {
+                    blockOffsets[i] = dis.readLong();
+                }
+
+                for (int i = 0; i < blocks; i++) {
+                    blockLengths[i] = dis.readInt();
+                }
+            }
+
+            IndexBuilder indexBuilder = newIndexBuilder(builder.indexMode, digested);
+
+            for (int i = dis.readInt(); i > 0; i--) {
+                String key = dis.readUTF();
+                long from = dis.readLong();
+                long to = from + dis.readInt();
+                byte[] digest = null;
+
+                if (digested) {
+                    digest = new byte[DIGEST_LENGTH];
+                    dis.readFully(digest);
+                }
+
+                indexBuilder.add(key, new Point(from, to, digest));
+            }
+
+            this.index = indexBuilder.build();
+
+            verifySnapshotContents(stamp);
+
+            Storage raw = openStorage(tmpFile, storageMode);
+            this.storage = blocks >= 0 ? new CompressedStorage(raw, blockOffsets, blockLengths) : raw;
+        }
+    }
+
+    // Note: The contents file of a snapshot ends with the stamp of its index file, so that a contents file and an
+    //       index file saved by different saves are never used together.
+    private void verifySnapshotContents(long stamp) throws IOException {
+        try (var ch = FileChannel.open(tmpFile, StandardOpenOption.READ)) {
+            var trailer = ByteBuffer.allocate(Long.BYTES);
+
+            if (ch.size() != tmpFileLength + Long.BYTES || ch.read(trailer, tmpFileLength) != Long.BYTES
+                || trailer.getLong(0) != stamp) {
+                throw new IOException("Snapshot of ContentMap is broken.");
+            }
+        }
+    }
+
+    private static IndexBuilder newIndexBuilder(IndexMode indexMode, boolean digested) {
+        return switch (indexMode) {
+            case TREE ->
+                new TreeIndex.Builder();
+            case COMPACT ->
+                new CompactIndex.Builder(digested ? DIGEST_LENGTH : 0);
+        };
+    }
+
+    // Note: Stable merge sort of the positions by their keys, that avoids boxing every position.
+    private static int[] sortByKey(int[] order, String[] keys) {
+        int count = order.length;
+        int[] work = new int[count];
+
+        for (long width = 1; width < count; width *= 2) {
+            for (long lo = 0; lo < count; lo += width * 2) {
+                int mid = (int) Math.min(lo + width, count);
+                int hi = (int) Math.min(lo + width * 2, count);
+
+                for (int i = (int) lo, l = i, r = mid; i < hi; i++) {
+                    work[i] = r >= hi || l < mid
+                        && String.CASE_INSENSITIVE_ORDER.compare(keys[order[l]], keys[order[r]]) <= 0
+                        ? order[l++] : order[r++];
+                }
+            }
+
+            int[] swap = order;
+            order = work;
+            work = swap;
+        }
+
+        return order;
+    }
+
+    private static Storage openStorage(Path file, StorageMode storageMode) throws IOException {
+        return switch (storageMode) {
+            case RANDOM_ACCESS ->
+                new RandomAccessStorage(file);
+            case MEMORY_MAPPED ->
+                new MappedStorage(file);
+        };
+    }
+
+    private void write(Iterator<Entry<String, T>> contents, SpillWriter writer, IndexBuilder indexBuilder)
+        throws IOException {
+
+        var content = new ContentBuffer();
+
+        while (contents.hasNext()) {
+            // Write one content.
+            Entry<String, T> e = contents.next();
+            byte[] digest = serialize(e.getValue(), content);
+
+            Point point = writer.write(content.array(), content.size(), digest);
+            indexBuilder.add(Objects.requireNonNull(e.getKey()), point);
+        }
+    }
+
+    // Note: Pipeline of one reader thread, serializer threads and the current thread as writer. The reader queues
+    //       a future of each content in source order and the writer takes them in that order, so offsets and
+    //       duplicate detection are same as the sequential writing. The queue bounds contents held in memory.
+    private void writePipelined(Iterator<Entry<String, T>> contents, SpillWriter writer, IndexBuilder indexBuilder,
+        Builder<T> builder) throws IOException {
+
+        BlockingQueue<Future<SerializedContent>> queue = new ArrayBlockingQueue<>(builder.parallelism * 4);
+        ExecutorService serializers = Executors.newFixedThreadPool(builder.parallelism, builder.threadFactory);
+        ThreadLocal<ContentBuffer> buffers = ThreadLocal.withInitial(ContentBuffer::new);
+
+        Thread reader = builder.threadFactory.newThread(() -> {
+            try {
+                try {
+                    while (contents.hasNext()) {
+                        Entry<String, T> e = contents.next();
+                        String key = Objects.requireNonNull(e.getKey());
+                        T value = e.getValue();
+
+                        queue.put(serializers.submit(() -> {
+                            ContentBuffer content = buffers.get();
+                            byte[] digest = serialize(value, content);
+
+                            return new SerializedContent(key, Arrays.copyOf(content.array(), content.size()), digest);
+                        }));
+                    }
+
+                    queue.put(END_OF_CONTENTS);
+                } catch (RuntimeException | Error ex) {
+                    // Note: Hand over to the writer at the position where it occurred.
+                    queue.put(CompletableFuture.failedFuture(ex));
+                }
+            } catch (InterruptedException ex) {
+                // Note: The writer has given up.
+            }
+        });
+
+        reader.start();
+
+        try {
+            for (Future<SerializedContent> f = queue.take(); f != END_OF_CONTENTS; f = queue.take()) {
+                SerializedContent c = f.get();
+                indexBuilder.add(c.key, writer.write(c.content, c.content.length, c.digest));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing contents.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            reader.interrupt();
+            serializers.shutdownNow();
+
+            try {
+                // Note: The source must not be touched after return.
+                reader.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private byte[] serialize(T value, ContentBuffer content) throws IOException {
+        content.reset();
+        converter.serialize(value, content);
+
+        return digester == null ? null : toDigest(digester.apply(value));
+    }
+
+    private static byte[] toDigest(String hex) {
+        byte[] digest = HexFormat.of().parseHex(Objects.requireNonNull(hex));
+
+        if (digest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Digest must be SHA-512 in hexadecimal.");
+        }
 
-        this.storage = new RandomAccessFile(tmpFile.toFile(), "r");
+        return digest;
     }
 
     /**
@@ -130,7 +427,7 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public boolean isEmpty() {
-        return points.isEmpty();
+        return index.size() == 0;
     }
 
     /**
@@ -140,7 +437,7 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public int size() {
-        return points.size();
+        return index.size();
     }
 
     /**
@@ -151,17 +448,17 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public boolean containsKey(String key) {
-        return points.containsKey(key);
+        return index.get(key) != null;
     }
 
     /**
-     * Returns all content ids.
+     * Returns all content ids. The ids are ordered by {@link String#CASE_INSENSITIVE_ORDER}.
      *
      * @return all content ids
      * @since 3.0.0
      */
     public Set<String> keySet() {
-        return points.keySet();
+        return index.keySet();
     }
 
     /**
@@ -171,7 +468,19 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public Stream<T> stream() {
-        return keySet().stream().map(this::get);
+        return StreamSupport.stream(index.spliterator(), false).map(this::get);
+    }
+
+    /**
+     * Get all values stored in this as a parallel stream. The id space is split into contiguous ranges, and each
+     * range is read and de-serialized by a separate worker. Use with {@link StorageMode#MEMORY_MAPPED}, because
+     * {@link StorageMode#RANDOM_ACCESS} serializes concurrent reads.
+     *
+     * @return all values stored in this
+     * @since 3.0.0
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(index.spliterator(), true).map(this::get);
     }
 
     /**
@@ -183,26 +492,110 @@ public class ContentMap<T> implements Closeable {
      * @since 3.0.0
      */
     public T get(String key) {
-        if (!containsKey(key)) {
+        Point point = index.get(key);
+
+        if (point == null) {
             return null;
         }
 
-        return get(points.get(key));
+        if (cache == null) {
+            return get(point);
+        }
+
+        T value = cache.get(point.from);
+
+        if (value == null) {
+            value = get(point);
+
+            if (value != null) {
+                value = cache.putIfAbsent(point.from, value);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Get number of times that {@link #get(String)} found a value in the cache.
+     *
+     * @return number of cache hits. It is always 0 if this was built without {@link Builder#withCache(int)}.
+     * @since 3.0.0
+     */
+    public long getCacheHitCount() {
+        return cache == null ? 0 : cache.getHitCount();
+    }
+
+    /**
+     * Get number of times that {@link #get(String)} did not find a value in the cache and read the working file.
+     *
+     * @return number of cache misses. It is always 0 if this was built without {@link Builder#withCache(int)}.
+     * @since 3.0.0
+     */
+    public long getCacheMissCount() {
+        return cache == null ? 0 : cache.getMissCount();
     }
 
     private T get(Point point) {
-        synchronized (storage) {
-            byte[] buf = new byte[Math.toIntExact(point.to - point.from)];
+        final ByteBuffer buf;
 
-            try {
-                storage.seek(point.from);
-                storage.readFully(buf);
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
-            }
+        try {
+            buf = storage.read(point.from, Math.toIntExact(point.to - point.from));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return converter.deserialize(buf);
+    }
+
+    /**
+     * Get a digest of the content associated with {@code key}. It is the digest computed by the function given to
+     * {@link Builder#withDigest(Function)}, in lower case hexadecimal, 128 characters.
+     *
+     * @param key content id
+     * @return a digest of the content associated with {@code key}. Returns {@code null} if not exists.
+     * @throws IllegalStateException if this was built without {@link Builder#withDigest(Function)}
+     * @since 3.0.0
+     */
+    public String digest(String key) {
+        requireDigested();
+
+        Point point = index.get(key);
+
+        return point == null ? null : HexFormat.of().formatHex(point.digest);
+    }
+
+    /**
+     * Get all ids and digests stored in this, without reading the working file. The ids are ordered by
+     * {@link String#CASE_INSENSITIVE_ORDER}. Each digest is same as {@link #digest(String)}.
+     *
+     * @return all ids and digests stored in this
+     * @throws IllegalStateException if this was built without {@link Builder#withDigest(Function)}
+     * @since 3.0.0
+     */
+    public Stream<Entry<String, String>> digests() {
+        requireDigested();
+
+        var hex = HexFormat.of();
+
+        return StreamSupport.stream(index.entrySpliterator(), false)
+            .map(e -> Map.entry(e.getKey(), hex.formatHex(e.getValue().digest)));
+    }
+
+    private void requireDigested() {
+        if (!digested) {
+            throw new IllegalStateException("Digest is not computed.");
+        }
+    }
 
-            return converter.deserialize(new String(buf, StandardCharsets.UTF_8));
+    // Note: Folds each character same as String.CASE_INSENSITIVE_ORDER, so equal keys have equal hash.
+    static int foldedHash(String key) {
+        int h = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
         }
+
+        return h;
     }
 
     /**
@@ -226,7 +619,86 @@ public class ContentMap<T> implements Closeable {
     }
 
     /**
-     * Delete the temporary files used by this class.
+     * Save this as a snapshot into {@code dir}. It consists of the working file and the index, including digests.
+     * Duplicates are not saved. A snapshot already saved in {@code dir} is replaced. The snapshot can be reopened by
+     * {@link Builder#open(Path)}.
+     *
+     * @param dir where to save the snapshot. It is created if not exists.
+     * @throws IOException if occurs I/O error
+     * @throws NullPointerException if {@code dir} is {@code null}
+     * @since 3.0.0
+     */
+    public void save(Path dir) throws IOException {
+        Files.createDirectories(Objects.requireNonNull(dir));
+
+        Path contentsFile = Files.createTempFile(dir, null, null);
+        Path indexFile = Files.createTempFile(dir, null, null);
+        long stamp = new Random().nextLong();
+
+        try {
+            try (var src = FileChannel.open(tmpFile, StandardOpenOption.READ);
+                var dst = FileChannel.open(contentsFile, StandardOpenOption.WRITE);) {
+
+                for (long copied = 0; copied < tmpFileLength;) {
+                    copied += src.transferTo(copied, tmpFileLength - copied, dst);
+                }
+
+                dst.write(ByteBuffer.allocate(Long.BYTES).putLong(0, stamp));
+            }
+
+            try (var os = Files.newOutputStream(indexFile);
+                var dos = new DataOutputStream(new BufferedOutputStream(os));) {
+                writeIndex(dos, stamp);
+            }
+
+            Files.move(contentsFile, dir.resolve(SNAPSHOT_CONTENTS), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexFile, dir.resolve(SNAPSHOT_INDEX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(contentsFile);
+            Files.deleteIfExists(indexFile);
+        }
+    }
+
+    private void writeIndex(DataOutputStream dos, long stamp) throws IOException {
+        dos.writeInt(SNAPSHOT_MAGIC);
+        dos.writeInt(SNAPSHOT_VERSION);
+        dos.writeLong(stamp);
+        dos.writeLong(tmpFileLength);
+        dos.writeBoolean(digested);
+
+        if (storage instanceof CompressedStorage compressed) {
+            dos.writeInt(compressed.blockLengths.length);
+
+            for (long offset : compressed.blockOffsets) {
+                dos.writeLong(offset);
+            }
+
+            for (int length : compressed.blockLengths) {
+                dos.writeInt(length);
+            }
+        } else {
+            dos.writeInt(-1);
+        }
+
+        dos.writeInt(index.size());
+
+        for (Iterator<Entry<String, Point>> i = Spliterators.iterator(index.entrySpliterator()); i.hasNext();) {
+            Entry<String, Point> e = i.next();
+
+            dos.writeUTF(e.getKey());
+            dos.writeLong(e.getValue().from);
+            dos.writeInt(Math.toIntExact(e.getValue().to - e.getValue().from));
+
+            if (digested) {
+                dos.write(e.getValue().digest);
+            }
+        }
+    }
+
+    /**
+     * Delete the temporary files used by this class. If this was opened from a snapshot, the snapshot is not deleted.
      *
      * @throws IOException if occurs I/O error
      * @since 3.0.0
@@ -234,52 +706,1259 @@ public class ContentMap<T> implements Closeable {
     @Override
     public void close() throws IOException {
         storage.close();
-        Files.deleteIfExists(tmpFile);
+
+        if (!temporary) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException ex) {
+            if (storageMode != StorageMode.MEMORY_MAPPED) {
+                throw ex;
+            }
+
+            // Note: Some platforms refuse to delete a file while it is mapped. The mapping is released by GC.
+            tmpFile.toFile().deleteOnExit();
+        }
     }
 
     /**
-     * Content serialize and de-serialize.
+     * How to read the working file.
      *
-     * <p>
-     * Implementation requirements.
-     * <ul>
-     * <li>This class is immutable and thread-safe.</li>
-     * </ul>
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static enum StorageMode {
+        /**
+         * Reads the working file through one {@code RandomAccessFile}. Concurrent reads are serialized.
+         *
+         * @since 3.0.0
+         */
+        RANDOM_ACCESS,
+        /**
+         * Maps the working file into memory by {@code FileChannel#map}. Files larger than 2 GB are mapped in several
+         * segments. Concurrent reads proceed without a lock.
+         *
+         * @since 3.0.0
+         */
+        MEMORY_MAPPED
+    }
+
+    /**
+     * How to hold the index from content id to the position in the working file.
      *
-     * @param <T> Content type
      * @author riru
      * @version 3.0.0
      * @since 3.0.0
      */
-    public static interface Convertor<T> {
+    public static enum IndexMode {
+        /**
+         * Holds the index in a {@code TreeMap}. It costs about 70 bytes of heap per id in addition to the id itself.
+         * While contents are written, a Bloom filter over the ids pre-checks duplicates, so an id that is definitely
+         * new is only appended. The ids are sorted once after all contents have been written, which costs about 20
+         * bytes of heap per id more until then.
+         *
+         * @since 3.0.0
+         */
+        TREE,
+        /**
+         * Holds the index in sorted arrays of ids and primitive positions, and looks up by binary search. It costs
+         * about 16 bytes of heap per id in addition to the id itself. Duplicate detection is deferred until all
+         * contents have been written.
+         *
+         * @since 3.0.0
+         */
+        COMPACT
+    }
+
+    /**
+     * Builder of the {@code ContentMap}.
+     *
+     * @param <T> content type
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static class Builder<T> {
+
+        private final BinaryConvertor<T> converter;
+        private StorageMode storageMode = StorageMode.RANDOM_ACCESS;
+        private IndexMode indexMode = IndexMode.TREE;
+        private int compressionBlockSize;
+        private Function<? super T, String> digester;
+        private int parallelism = 1;
+        private ThreadFactory threadFactory = Thread.ofPlatform().daemon().factory();
+        private int cacheSize;
 
         /**
-         * Serialize to {@code String}.
+         * Constructor.
          *
-         * @param c content value
-         * @return serialized content value
+         * @param converter the {@code Convertor}
+         * @throws NullPointerException if {@code converter} is {@code null}
          * @since 3.0.0
          */
-        String serialize(T c);
+        public Builder(Convertor<T> converter) {
+            this.converter = new StringConvertorAdapter<>(Objects.requireNonNull(converter));
+        }
 
         /**
-         * De-serialize from {@code String}.
+         * Constructor.
          *
-         * @param s serialized content value
-         * @return content value
+         * @param converter the {@code BinaryConvertor}
+         * @throws NullPointerException if {@code converter} is {@code null}
          * @since 3.0.0
          */
-        T deserialize(String s);
-    }
+        public Builder(BinaryConvertor<T> converter) {
+            this.converter = Objects.requireNonNull(converter);
+        }
 
-    private class Point {
+        /**
+         * Set how to read the working file. Default is {@link StorageMode#RANDOM_ACCESS}.
+         *
+         * @param storageMode the {@code StorageMode}
+         * @return updated this
+         * @throws NullPointerException if {@code storageMode} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<T> withStorageMode(StorageMode storageMode) {
+            this.storageMode = Objects.requireNonNull(storageMode);
+            return this;
+        }
 
-        private final long from;
-        private final long to;
+        /**
+         * Set how to hold the index. Default is {@link IndexMode#TREE}.
+         *
+         * @param indexMode the {@code IndexMode}
+         * @return updated this
+         * @throws NullPointerException if {@code indexMode} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<T> withIndexMode(IndexMode indexMode) {
+            this.indexMode = Objects.requireNonNull(indexMode);
+            return this;
+        }
 
-        private Point(long from, long to) {
-            this.from = from;
+        /**
+         * Compress the working file. Contents are packed into blocks of about {@code blockSize} bytes, and each block
+         * is compressed by DEFLATE. A content larger than {@code blockSize} is kept alone in one block. Reading a
+         * content decompresses its whole block, and the last decompressed block is kept per thread, so reading in id
+         * order is efficient when contents are supplied in id order. Default is no compression.
+         *
+         * @param blockSize uncompressed block size in bytes
+         * @return updated this
+         * @throws IllegalArgumentException if {@code blockSize} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<T> withCompression(int blockSize) {
+            if (blockSize < 1) {
+                throw new IllegalArgumentException("Block size must be positive.");
+            }
+
+            this.compressionBlockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Compute a digest of each content while it is written. It costs 64 bytes of heap per id. With the pipelined
+         * construction, {@code digester} is called by the serializer threads. Default is no digest.
+         *
+         * <p>
+         * The digest should be computed from the canonical form of the content, such as the canonical JSON digest of
+         * {@code DigestService}, so that it does not depend on the convertor and equals the {@code digest} column of
+         * content tables.
+         *
+         * @param digester function that computes a SHA-512 digest of a content in hexadecimal, 128 characters. It
+         * must be thread-safe.
+         * @return updated this
+         * @throws NullPointerException if {@code digester} is {@code null}
+         * @see ContentMap#digest(String)
+         * @see ContentMap#digests()
+         * @since 3.0.0
+         */
+        public Builder<T> withDigest(Function<? super T, String> digester) {
+            this.digester = Objects.requireNonNull(digester);
+            return this;
+        }
+
+        /**
+         * Set number of threads that serialize contents. If greater than 1, contents are read from the source by one
+         * thread, serialized by {@code parallelism} threads and written by the thread that builds, in the source
+         * order. So the working file and duplicate detection are same as the single thread. The source is never
+         * accessed by more than one thread at a time. Default is 1, that does everything in the thread that
+         * builds.
+         *
+         * @param parallelism number of threads that serialize contents
+         * @return updated this
+         * @throws IllegalArgumentException if {@code parallelism} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<T> withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive.");
+            }
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the {@code ThreadFactory} that creates the reading thread and the serializing threads. For example,
+         * {@code Thread.ofVirtual().factory()} runs them on virtual threads. Default creates platform daemon threads.
+         * It is used only if {@link #withParallelism(int)} is greater than 1.
+         *
+         * @param threadFactory the {@code ThreadFactory}
+         * @return updated this
+         * @throws NullPointerException if {@code threadFactory} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<T> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory);
+            return this;
+        }
+
+        ThreadFactory getThreadFactory() {
+            return threadFactory;
+        }
+
+        /**
+         * Cache values got by {@link ContentMap#get(String)}, up to {@code maximumSize} values. The least recently
+         * used value is evicted when full, but a new value is admitted only if it has been requested more frequently
+         * than the value to be evicted. So a value requested only once, such as by a scan of all ids, does not evict
+         * frequently requested values. Frequency is estimated by a small sketch, about 4 bytes per cached value, and
+         * it is halved periodically so that old popularity fades. Default is no cache.
+         *
+         * @param maximumSize maximum number of cached values
+         * @return updated this
+         * @throws IllegalArgumentException if {@code maximumSize} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<T> withCache(int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Cache size must be positive.");
+            }
+
+            this.cacheSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Open a snapshot saved by {@link ContentMap#save(Path)}. The storage mode, the index mode and the converter
+         * of this builder are applied, and the compression and the digest follow the snapshot. The returned
+         * {@code ContentMap} has no duplicates, and it does not delete the snapshot on close.
+         *
+         * @param snapshotDir where the snapshot was saved
+         * @return {@code ContentMap} of the snapshot
+         * @throws IOException if occurs I/O error, or if {@code snapshotDir} has no valid snapshot
+         * @throws NullPointerException if {@code snapshotDir} is {@code null}
+         * @since 3.0.0
+         */
+        public ContentMap<T> open(Path snapshotDir) throws IOException {
+            return new ContentMap<>(Objects.requireNonNull(snapshotDir), this);
+        }
+
+        /**
+         * Build a new {@code ContentMap}.
+         *
+         * @param contents id and value of content
+         * @param tmpDir where to save temporary files
+         * @return new {@code ContentMap}
+         * @throws IOException if occurs I/O error
+         * @throws NullPointerException if any argument is {@code null} or if exists a {@code null} in
+         * {@code contents}
+         * @since 3.0.0
+         */
+        public ContentMap<T> build(Iterator<Entry<String, T>> contents, Path tmpDir) throws IOException {
+            return new ContentMap<>(contents, tmpDir, this);
+        }
+    }
+
+    /**
+     * Content serialize and de-serialize.
+     *
+     * <p>
+     * Implementation requirements.
+     * <ul>
+     * <li>This class is immutable and thread-safe.</li>
+     * </ul>
+     *
+     * @param <T> Content type
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static interface Convertor<T> {
+
+        /**
+         * Serialize to {@code String}.
+         *
+         * @param c content value
+         * @return serialized content value
+         * @since 3.0.0
+         */
+        String serialize(T c);
+
+        /**
+         * De-serialize from {@code String}.
+         *
+         * @param s serialized content value
+         * @return content value
+         * @since 3.0.0
+         */
+        T deserialize(String s);
+    }
+
+    /**
+     * Content serialize and de-serialize at the byte level. It saves the charset encoding and decoding and the
+     * intermediate {@code String} that the {@link Convertor} needs.
+     *
+     * <p>
+     * Implementation requirements.
+     * <ul>
+     * <li>This class is immutable and thread-safe.</li>
+     * </ul>
+     *
+     * @param <T> Content type
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static interface BinaryConvertor<T> {
+
+        /**
+         * Serialize to bytes.
+         *
+         * @param c content value
+         * @param os where to write serialized content value. It is a buffer reused for each content, so do not keep
+         * it.
+         * @throws IOException if occurs I/O error
+         * @since 3.0.0
+         */
+        void serialize(T c, OutputStream os) throws IOException;
+
+        /**
+         * De-serialize from bytes.
+         *
+         * @param buf serialized content value, from its position to its limit. It is exclusive to this call, so its
+         * position may be changed. It may be read-only and may be a view of the working file, so do not keep it.
+         * @return content value
+         * @since 3.0.0
+         */
+        T deserialize(ByteBuffer buf);
+    }
+
+    private static class StringConvertorAdapter<T> implements BinaryConvertor<T> {
+
+        private final Convertor<T> converter;
+
+        private StringConvertorAdapter(Convertor<T> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public void serialize(T c, OutputStream os) throws IOException {
+            os.write(converter.serialize(c).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public T deserialize(ByteBuffer buf) {
+            if (buf.hasArray()) {
+                return converter.deserialize(new String(buf.array(), buf.arrayOffset() + buf.position(),
+                    buf.remaining(), StandardCharsets.UTF_8));
+            }
+
+            byte[] bytes = new byte[buf.remaining()];
+            buf.get(bytes);
+
+            return converter.deserialize(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class ContentBuffer extends ByteArrayOutputStream {
+
+        private ContentBuffer() {
+            super(8192);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+
+    private static final int DIGEST_LENGTH = 64;
+
+    private static final String SNAPSHOT_CONTENTS = "contents";
+    private static final String SNAPSHOT_INDEX = "index";
+    private static final int SNAPSHOT_MAGIC = 0x53414649;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Future<SerializedContent> END_OF_CONTENTS = CompletableFuture.completedFuture(null);
+
+    private static class SerializedContent {
+
+        private final String key;
+        private final byte[] content;
+        private final byte[] digest;
+
+        private SerializedContent(String key, byte[] content, byte[] digest) {
+            this.key = key;
+            this.content = content;
+            this.digest = digest;
+        }
+    }
+
+    private static class Point {
+
+        private final long from;
+        private final long to;
+        private final byte[] digest;
+
+        private Point(long from, long to, byte[] digest) {
+            this.from = from;
             this.to = to;
+            this.digest = digest;
+        }
+    }
+
+    // Note: TinyLFU admission. Count-min sketch of 4 rows with counters saturated at 15.
+    private static class FrequencySketch implements StripedCache.Admission<Long> {
+
+        private static final int ROWS = 4;
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            int width = Math.max(16, Integer.highestOneBit(Math.max(1, capacity) - 1) << 1);
+
+            this.counters = new byte[width * ROWS];
+            this.mask = width - 1;
+            this.sampleSize = Math.max(160, capacity * 10);
+        }
+
+        @Override
+        public void record(Long key) {
+            increment(key);
+        }
+
+        @Override
+        public boolean admit(Long candidate, Long victim) {
+            return frequency(candidate) > frequency(victim);
+        }
+
+        private void increment(long key) {
+            for (int row = 0; row < ROWS; row++) {
+                int i = row * (mask + 1) + (hash(key, row) & mask);
+
+                if (counters[i] < MAX_COUNT) {
+                    counters[i]++;
+                }
+            }
+
+            if (++additions >= sampleSize) {
+                // Note: Halve all counts, so that old popularity fades.
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>>= 1;
+                }
+
+                additions /= 2;
+            }
+        }
+
+        private int frequency(long key) {
+            int min = MAX_COUNT;
+
+            for (int row = 0; row < ROWS; row++) {
+                min = Math.min(min, counters[row * (mask + 1) + (hash(key, row) & mask)]);
+            }
+
+            return min;
+        }
+
+        private static int hash(long key, int row) {
+            long h = (key + row * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+
+            return (int) (h ^ h >>> 31 ^ h >>> 47);
+        }
+    }
+
+    private interface Index {
+
+        int size();
+
+        Point get(String key);
+
+        Set<String> keySet();
+
+        Spliterator<Point> spliterator();
+
+        Spliterator<Entry<String, Point>> entrySpliterator();
+    }
+
+    private interface IndexBuilder {
+
+        void add(String key, Point point);
+
+        Index build();
+
+        Map<String, List<Point>> duplicates();
+    }
+
+    private static class TreeIndex implements Index {
+
+        private final Map<String, Point> points;
+
+        private TreeIndex(Map<String, Point> points) {
+            this.points = points;
+        }
+
+        @Override
+        public int size() {
+            return points.size();
+        }
+
+        @Override
+        public Point get(String key) {
+            return points.get(key);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(points.keySet());
+        }
+
+        @Override
+        public Spliterator<Point> spliterator() {
+            return points.values().spliterator();
+        }
+
+        @Override
+        public Spliterator<Entry<String, Point>> entrySpliterator() {
+            return points.entrySet().spliterator();
+        }
+
+        // Note: A key is appended without any lookup, and is suspected only if the filter says that it may have been
+        //       added. The first occurrence of a key is never suspected, because it has not set the filter yet. So
+        //       duplicates are resolved exactly among the suspected keys only, and the ids are sorted once when
+        //       building.
+        private static class Builder implements IndexBuilder {
+
+            private String[] keys = new String[1024];
+            private Point[] points = new Point[1024];
+            private int[] hashes = new int[1024];
+            private int count;
+            private int[] suspects = new int[64];
+            private int suspectCount;
+            private KeyFilter filter = new KeyFilter(1024);
+            private final Map<String, List<Point>> duplicates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+            @Override
+            public void add(String key, Point point) {
+                int hash = foldedHash(key);
+
+                if (count == keys.length) {
+                    int newLength = Math.toIntExact(Math.min(Integer.MAX_VALUE - 8, count * 2L));
+                    keys = Arrays.copyOf(keys, newLength);
+                    points = Arrays.copyOf(points, newLength);
+                    hashes = Arrays.copyOf(hashes, newLength);
+                }
+
+                if (filter.isFull(count)) {
+                    // Note: Rebuild larger from the saved hashes, so that false positive rate stays low.
+                    filter = new KeyFilter(count * 2);
+
+                    for (int i = 0; i < count; i++) {
+                        filter.testAndAdd(hashes[i]);
+                    }
+                }
+
+                if (filter.testAndAdd(hash)) {
+                    if (suspectCount == suspects.length) {
+                        suspects = Arrays.copyOf(suspects, suspectCount * 2);
+                    }
+
+                    suspects[suspectCount++] = count;
+                }
+
+                keys[count] = key;
+                points[count] = point;
+                hashes[count] = hash;
+                count++;
+            }
+
+            @Override
+            public Index build() {
+                Map<String, List<Point>> groups = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                var suspected = new KeyFilter(suspectCount);
+                var grouped = new boolean[count];
+
+                for (int s = 0; s < suspectCount; s++) {
+                    int i = suspects[s];
+
+                    groups.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(points[i]);
+                    suspected.testAndAdd(hashes[i]);
+                    grouped[i] = true;
+                }
+
+                for (int i = 0; i < count; i++) {
+                    if (!grouped[i] && suspected.mightContain(hashes[i])) {
+                        List<Point> group = groups.get(keys[i]);
+
+                        if (group != null) {
+                            // Note: The first occurrence precedes all suspected occurrences.
+                            group.addFirst(points[i]);
+                            grouped[i] = true;
+                        }
+                    }
+                }
+
+                for (int s = 0; s < suspectCount; s++) {
+                    // Note: False positive of the filter.
+                    grouped[suspects[s]] = groups.get(keys[suspects[s]]).size() > 1;
+                }
+
+                groups.forEach((k, v) -> {
+                    if (v.size() > 1) {
+                        duplicates.put(k, v);
+                    }
+                });
+
+                int[] order = new int[count];
+                int unique = 0;
+
+                for (int i = 0; i < count; i++) {
+                    if (!grouped[i]) {
+                        order[unique++] = i;
+                    }
+                }
+
+                return new TreeIndex(new TreeMap<>(new SortedRun(keys, points, sortByKey(Arrays.copyOf(order, unique),
+                    keys))));
+            }
+
+            @Override
+            public Map<String, List<Point>> duplicates() {
+                return duplicates;
+            }
+        }
+
+        // Note: Sorted view of the positions, only to build a TreeMap in linear time by TreeMap(SortedMap).
+        private static class SortedRun extends AbstractMap<String, Point> implements SortedMap<String, Point> {
+
+            private final String[] keys;
+            private final Point[] points;
+            private final int[] order;
+
+            private SortedRun(String[] keys, Point[] points, int[] order) {
+                this.keys = keys;
+                this.points = points;
+                this.order = order;
+            }
+
+            @Override
+            public Comparator<? super String> comparator() {
+                return String.CASE_INSENSITIVE_ORDER;
+            }
+
+            @Override
+            public int size() {
+                return order.length;
+            }
+
+            @Override
+            public Set<Entry<String, Point>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, Point>> iterator() {
+                        return Arrays.stream(order).mapToObj(i -> Map.entry(keys[i], points[i])).iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return order.length;
+                    }
+                };
+            }
+
+            @Override
+            public String firstKey() {
+                if (order.length == 0) {
+                    throw new NoSuchElementException();
+                }
+
+                return keys[order[0]];
+            }
+
+            @Override
+            public String lastKey() {
+                if (order.length == 0) {
+                    throw new NoSuchElementException();
+                }
+
+                return keys[order[order.length - 1]];
+            }
+
+            @Override
+            public SortedMap<String, Point> subMap(String fromKey, String toKey) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public SortedMap<String, Point> headMap(String toKey) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public SortedMap<String, Point> tailMap(String fromKey) {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+
+    // Note: Bloom filter of the folded hashes of keys, so that keys equal by String.CASE_INSENSITIVE_ORDER have equal
+    //       bits. It answers "definitely not added" by one hash of the key.
+    private static class KeyFilter {
+
+        private static final int HASHES = 3;
+        private static final int MAX_BITS = 1 << 30;
+
+        private final long[] words;
+        private final int mask;
+
+        // Note: About 10 bits per key keeps false positive rate below 1% with 3 hashes.
+        private KeyFilter(int capacity) {
+            int bits = (int) Math.min(MAX_BITS, Long.highestOneBit(Math.max(64, capacity * 10L) - 1) << 1);
+
+            this.words = new long[bits >>> 6];
+            this.mask = bits - 1;
+        }
+
+        private boolean isFull(int added) {
+            return added >= (mask + 1) / 10 && mask + 1 < MAX_BITS;
+        }
+
+        // Note: Returns true if the hash may have been added before.
+        private boolean testAndAdd(int hash) {
+            int h1 = hash * 0x9E3779B9;
+            int h2 = h1 >>> 16 | 1;
+            boolean present = true;
+
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+
+                present &= (words[bit >>> 6] & 1L << bit) != 0;
+                words[bit >>> 6] |= 1L << bit;
+            }
+
+            return present;
+        }
+
+        private boolean mightContain(int hash) {
+            int h1 = hash * 0x9E3779B9;
+            int h2 = h1 >>> 16 | 1;
+
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+
+                if ((words[bit >>> 6] & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static class CompactIndex implements Index {
+
+        private final String[] keys;
+        private final long[] froms;
+        private final int[] lengths;
+        private final byte[] digests;
+        private final int digestLength;
+
+        private CompactIndex(String[] keys, long[] froms, int[] lengths, byte[] digests, int digestLength) {
+            this.keys = keys;
+            this.froms = froms;
+            this.lengths = lengths;
+            this.digests = digests;
+            this.digestLength = digestLength;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Point get(String key) {
+            int i = Arrays.binarySearch(keys, Objects.requireNonNull(key), String.CASE_INSENSITIVE_ORDER);
+
+            return i < 0 ? null : point(i);
+        }
+
+        private Point point(int i) {
+            byte[] digest = digestLength > 0
+                ? Arrays.copyOfRange(digests, i * digestLength, (i + 1) * digestLength)
+                : null;
+
+            return new Point(froms[i], froms[i] + lengths[i], digest);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return Arrays.asList(keys).iterator();
+                }
+
+                @Override
+                public Spliterator<String> spliterator() {
+                    return Spliterators.spliterator(keys, Spliterator.ORDERED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof String k && get(k) != null;
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<Point> spliterator() {
+            return new RangeSpliterator<>(0, keys.length, this::point);
+        }
+
+        @Override
+        public Spliterator<Entry<String, Point>> entrySpliterator() {
+            return new RangeSpliterator<>(0, keys.length, i -> Map.entry(keys[i], point(i)));
+        }
+
+        private static class RangeSpliterator<E> implements Spliterator<E> {
+
+            private int from;
+            private final int to;
+            private final IntFunction<E> element;
+
+            private RangeSpliterator(int from, int to, IntFunction<E> element) {
+                this.from = from;
+                this.to = to;
+                this.element = element;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                if (from >= to) {
+                    return false;
+                }
+
+                action.accept(element.apply(from));
+                from++;
+
+                return true;
+            }
+
+            @Override
+            public Spliterator<E> trySplit() {
+                int mid = (from + to) >>> 1;
+
+                if (mid <= from) {
+                    return null;
+                }
+
+                var prefix = new RangeSpliterator<>(from, mid, element);
+                from = mid;
+
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return to - from;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+            }
+        }
+
+        private static class Builder implements IndexBuilder {
+
+            private String[] keys = new String[1024];
+            private long[] froms = new long[1024];
+            private int[] lengths = new int[1024];
+            private byte[] digests;
+            private final int digestLength;
+            private int count;
+            private final Map<String, List<Point>> duplicates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+            private Builder(int digestLength) {
+                this.digestLength = digestLength;
+                this.digests = new byte[1024 * digestLength];
+            }
+
+            @Override
+            public void add(String key, Point point) {
+                if (count == keys.length) {
+                    int newLength = Math.toIntExact(Math.min(Integer.MAX_VALUE - 8, count * 2L));
+                    keys = Arrays.copyOf(keys, newLength);
+                    froms = Arrays.copyOf(froms, newLength);
+                    lengths = Arrays.copyOf(lengths, newLength);
+                    digests = Arrays.copyOf(digests, Math.toIntExact((long) newLength * digestLength));
+                }
+
+                keys[count] = key;
+                froms[count] = point.from;
+                lengths[count] = Math.toIntExact(point.to - point.from);
+
+                if (digestLength > 0) {
+                    System.arraycopy(point.digest, 0, digests, count * digestLength, digestLength);
+                }
+
+                count++;
+            }
+
+            @Override
+            public Index build() {
+                int[] order = sortedOrder();
+
+                String[] uniqueKeys = new String[count];
+                long[] uniqueFroms = new long[count];
+                int[] uniqueLengths = new int[count];
+                byte[] uniqueDigests = new byte[count * digestLength];
+                int unique = 0;
+
+                for (int begin = 0, end; begin < count; begin = end) {
+                    // Note: Sorting is stable, so a run of the same key keeps the written order.
+                    end = begin + 1;
+                    while (end < count
+                        && String.CASE_INSENSITIVE_ORDER.compare(keys[order[begin]], keys[order[end]]) == 0) {
+                        end++;
+                    }
+
+                    if (end - begin == 1) {
+                        uniqueKeys[unique] = keys[order[begin]];
+                        uniqueFroms[unique] = froms[order[begin]];
+                        uniqueLengths[unique] = lengths[order[begin]];
+                        System.arraycopy(digests, order[begin] * digestLength, uniqueDigests, unique * digestLength,
+                            digestLength);
+                        unique++;
+                    } else {
+                        var dupPoints = new ArrayList<Point>(end - begin);
+
+                        for (int i = begin; i < end; i++) {
+                            dupPoints.add(new Point(froms[order[i]], froms[order[i]] + lengths[order[i]], null));
+                        }
+
+                        duplicates.put(keys[order[begin]], dupPoints);
+                    }
+                }
+
+                return new CompactIndex(Arrays.copyOf(uniqueKeys, unique), Arrays.copyOf(uniqueFroms, unique),
+                    Arrays.copyOf(uniqueLengths, unique), Arrays.copyOf(uniqueDigests, unique * digestLength),
+                    digestLength);
+            }
+
+            @Override
+            public Map<String, List<Point>> duplicates() {
+                return duplicates;
+            }
+
+            private int[] sortedOrder() {
+                int[] order = new int[count];
+
+                for (int i = 0; i < count; i++) {
+                    order[i] = i;
+                }
+
+                return sortByKey(order, keys);
+            }
+        }
+    }
+
+    private interface SpillWriter {
+
+        Point write(byte[] content, int length, byte[] digest) throws IOException;
+
+        void flush() throws IOException;
+
+        Storage open(Storage raw);
+    }
+
+    private static class PlainSpillWriter implements SpillWriter {
+
+        private final OutputStream os;
+        private long offset;
+
+        private PlainSpillWriter(OutputStream os) {
+            this.os = os;
+        }
+
+        @Override
+        public Point write(byte[] content, int length, byte[] digest) throws IOException {
+            os.write(content, 0, length);
+
+            Point point = new Point(offset, offset + length, digest);
+            offset = point.to;
+
+            return point;
+        }
+
+        @Override
+        public void flush() {
+            // Note: Nothing is buffered.
+        }
+
+        @Override
+        public Storage open(Storage raw) {
+            return raw;
+        }
+    }
+
+    // Note: A point in a block is addressed as (block number << 32 | offset in block). A content never straddles
+    //       blocks, so "to - from" is still the content length.
+    private static class BlockSpillWriter implements SpillWriter {
+
+        private final OutputStream os;
+        private final int blockSize;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private byte[] block;
+        private int blockLength;
+        private byte[] compressed = new byte[8192];
+        private long offset;
+        private long[] blockOffsets = new long[1024];
+        private int[] blockLengths = new int[1024];
+        private int blocks;
+
+        private BlockSpillWriter(OutputStream os, int blockSize) {
+            this.os = os;
+            this.blockSize = blockSize;
+            this.block = new byte[blockSize];
+        }
+
+        @Override
+        public Point write(byte[] content, int length, byte[] digest) throws IOException {
+            if (blockLength > 0 && blockLength + length > blockSize) {
+                flush();
+            }
+
+            if (length > block.length) {
+                block = new byte[length];
+            }
+
+            System.arraycopy(content, 0, block, blockLength, length);
+
+            long from = (long) blocks << 32 | blockLength;
+            blockLength += length;
+
+            return new Point(from, from + length, digest);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (blockLength == 0) {
+                return;
+            }
+
+            deflater.reset();
+            deflater.setInput(block, 0, blockLength);
+            deflater.finish();
+
+            long start = offset;
+
+            while (!deflater.finished()) {
+                int n = deflater.deflate(compressed);
+                os.write(compressed, 0, n);
+                offset += n;
+            }
+
+            if (blocks + 1 >= blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+                blockLengths = Arrays.copyOf(blockLengths, blockLengths.length * 2);
+            }
+
+            blockOffsets[blocks] = start;
+            blockOffsets[blocks + 1] = offset;
+            blockLengths[blocks] = blockLength;
+            blocks++;
+
+            blockLength = 0;
+
+            if (block.length > blockSize) {
+                block = new byte[blockSize];
+            }
+        }
+
+        @Override
+        public Storage open(Storage raw) {
+            deflater.end();
+
+            return new CompressedStorage(raw, Arrays.copyOf(blockOffsets, blocks + 1),
+                Arrays.copyOf(blockLengths, blocks));
+        }
+    }
+
+    private interface Storage extends Closeable {
+
+        ByteBuffer read(long from, int length) throws IOException;
+    }
+
+    private static class RandomAccessStorage implements Storage {
+
+        private final RandomAccessFile file;
+
+        private RandomAccessStorage(Path path) throws IOException {
+            this.file = new RandomAccessFile(path.toFile(), "r");
+        }
+
+        @Override
+        public ByteBuffer read(long from, int length) throws IOException {
+            byte[] buf = new byte[length];
+
+            synchronized (file) {
+                file.seek(from);
+                file.readFully(buf);
+            }
+
+            return ByteBuffer.wrap(buf);
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+
+    private static class MappedStorage implements Storage {
+
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+        private final MappedByteBuffer[] segments;
+
+        private MappedStorage(Path path) throws IOException {
+            try (var ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = ch.size();
+
+                segments = new MappedByteBuffer[Math.toIntExact((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+
+                for (int i = 0; i < segments.length; i++) {
+                    long position = (long) i << SEGMENT_SHIFT;
+                    segments[i] = ch.map(MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+                }
+            }
+        }
+
+        @Override
+        public ByteBuffer read(long from, int length) {
+            int index = (int) (from >>> SEGMENT_SHIFT);
+            int offset = (int) (from & (SEGMENT_SIZE - 1));
+
+            // Note: Absolute access never changes the buffer position, so it is safe without a lock.
+            if ((long) offset + length <= segments[index].capacity()) {
+                return segments[index].slice(offset, length);
+            }
+
+            // Note: The content straddles segments.
+            byte[] buf = new byte[length];
+
+            for (int copied = 0; copied < length; index++, offset = 0) {
+                int n = Math.min(length - copied, segments[index].capacity() - offset);
+                segments[index].get(offset, buf, copied, n);
+                copied += n;
+            }
+
+            return ByteBuffer.wrap(buf);
+        }
+
+        @Override
+        public void close() {
+            // Note: The mapping is released when the buffers become unreachable.
+        }
+    }
+
+    private static class CompressedStorage implements Storage {
+
+        private final Storage raw;
+        private final long[] blockOffsets;
+        private final int[] blockLengths;
+        private final ThreadLocal<DecompressedBlock> lastBlock = new ThreadLocal<>();
+
+        private CompressedStorage(Storage raw, long[] blockOffsets, int[] blockLengths) {
+            this.raw = raw;
+            this.blockOffsets = blockOffsets;
+            this.blockLengths = blockLengths;
+        }
+
+        @Override
+        public ByteBuffer read(long from, int length) throws IOException {
+            int number = (int) (from >>> 32);
+            int offset = (int) from;
+
+            DecompressedBlock block = lastBlock.get();
+
+            if (block == null || block.number != number) {
+                block = new DecompressedBlock(number, decompress(number));
+                lastBlock.set(block);
+            }
+
+            return ByteBuffer.wrap(block.data, offset, length).slice();
+        }
+
+        private byte[] decompress(int number) throws IOException {
+            ByteBuffer compressed = raw.read(blockOffsets[number],
+                Math.toIntExact(blockOffsets[number + 1] - blockOffsets[number]));
+
+            byte[] data = new byte[blockLengths[number]];
+            var inflater = new Inflater();
+
+            try {
+                inflater.setInput(compressed);
+
+                for (int n = 0; n < data.length;) {
+                    int inflated = inflater.inflate(data, n, data.length - n);
+
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException("Compressed block is broken.");
+                    }
+
+                    n += inflated;
+                }
+            } catch (DataFormatException ex) {
+                throw new IOException(ex);
+            } finally {
+                inflater.end();
+            }
+
+            return data;
+        }
+
+        @Override
+        public void close() throws IOException {
+            raw.close();
+        }
+
+        private static class DecompressedBlock {
+
+            private final int number;
+            private final byte[] data;
+
+            private DecompressedBlock(int number, byte[] data) {
+                this.number = number;
+                this.data = data;
+            }
         }
     }
 }
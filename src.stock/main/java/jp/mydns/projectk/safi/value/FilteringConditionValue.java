@@ -29,14 +29,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.json.bind.annotation.JsonbTypeDeserializer;
 import jakarta.json.bind.serializer.DeserializationContext;
 import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.bind.serializer.JsonbSerializer;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.groups.Default;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import jp.mydns.projectk.safi.util.CollectionUtils;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.requireEvent;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.skipValue;
 
 /**
  * Filtering condition. Combines some conditions is also possible.
@@ -155,7 +163,60 @@ public interface FilteringConditionValue extends ValueTemplate {
     }
 
     /**
-     * JSON deserializer for {@code FilteringConditionValue}.
+     * JSON serializer for {@code FilteringConditionValue} that is built by builder. It writes properties directly to
+     * the generator, in the same order as the reflective binding.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Serializer implements JsonbSerializer<FilteringConditionValue> {
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public void serialize(FilteringConditionValue cond, JsonGenerator gen, SerializationContext ctx) {
+            gen.writeStartObject();
+
+            if (cond.getOperation() != null) {
+                gen.write("operation", cond.getOperation().name());
+            }
+
+            if (cond instanceof LeafConditionValue leaf) {
+                if (leaf.getName() != null) {
+                    gen.write("name", leaf.getName());
+                }
+
+                if (leaf.getValue() != null) {
+                    gen.write("value", leaf.getValue());
+                }
+            } else if (cond instanceof NodeConditionValue node && node.getChildren() != null) {
+                gen.writeStartArray("children");
+
+                for (FilteringConditionValue c : node.getChildren()) {
+                    if (c == null) {
+                        gen.writeNull();
+                    } else if (c instanceof LeafConditionValue.Builder.Bean
+                        || c instanceof NodeConditionValue.Builder.Bean) {
+                        serialize(c, gen, ctx);
+                    } else {
+                        ctx.serialize(c, gen);
+                    }
+                }
+
+                gen.writeEnd();
+            }
+
+            gen.writeEnd();
+        }
+    }
+
+    /**
+     * JSON deserializer for {@code FilteringConditionValue}. Properties are read from the parser by hand, without
+     * reflective binding, and children are read by this deserializer recursively.
      *
      * @author riru
      * @version 3.0.0
@@ -171,7 +232,8 @@ public interface FilteringConditionValue extends ValueTemplate {
         @Override
         public FilteringConditionValue deserialize(JsonParser jp, DeserializationContext dc, Type type) {
 
-            Bean tmp = dc.deserialize(Bean.class, jp);
+            // Note: The parser is scoped to the value, so it has no more events if the value is null.
+            Bean tmp = jp.hasNext() ? readBean(jp, dc) : null;
 
             return Optional.ofNullable(tmp).map(FilteringConditionValue::getOperation).map(o -> switch (o.getKind()) {
                 case NODE ->
@@ -181,6 +243,49 @@ public interface FilteringConditionValue extends ValueTemplate {
             }).orElse(tmp);
         }
 
+        // Note: The parser is at the start of object.
+        private Bean readBean(JsonParser jp, DeserializationContext dc) {
+            Bean bean = new Bean();
+
+            for (Event e = jp.next(); e != Event.END_OBJECT; e = jp.next()) {
+                String name = jp.getString();
+                Event value = jp.next();
+
+                switch (name) {
+                    case "operation" ->
+                        bean.setOperation(value == Event.VALUE_STRING ? FilteringOperationValue.valueOf(jp.getString())
+                            : dc.deserialize(FilteringOperationValue.class, jp));
+                    case "name" ->
+                        bean.setName(readString(jp, value, dc));
+                    case "value" ->
+                        bean.setValue(readString(jp, value, dc));
+                    case "children" ->
+                        bean.setChildren(readChildren(jp, value, dc));
+                    default ->
+                        skipValue(jp, value);
+                }
+            }
+
+            return bean;
+        }
+
+        private List<FilteringConditionValue> readChildren(JsonParser jp, Event value, DeserializationContext dc) {
+            if (value == Event.VALUE_NULL) {
+                return null;
+            }
+
+            requireEvent(Event.START_ARRAY, value);
+
+            List<FilteringConditionValue> children = new ArrayList<>();
+
+            for (Event e = jp.next(); e != Event.END_ARRAY; e = jp.next()) {
+                children.add(e == Event.START_OBJECT ? deserialize(jp, dc, FilteringConditionValue.class)
+                    : dc.deserialize(FilteringConditionValue.class, jp));
+            }
+
+            return children;
+        }
+
         /**
          * A {@code FilteringConditionValue} implementation specifically for JSON deserialization.
          *
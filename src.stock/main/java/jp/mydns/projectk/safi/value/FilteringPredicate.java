@@ -0,0 +1,959 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.LeafOperation;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.NodeOperation;
+
+/**
+ * Compiled {@code FilteringConditionValue}. The condition tree is compiled once into a flat program of leaf tests,
+ * each of which has a jump to the next test on {@code true} and on {@code false}, so that a record is evaluated by a
+ * single loop with short-circuiting and without recursion.
+ *
+ * <p>
+ * Evaluation rules.
+ * <ul>
+ * <li>{@code IS_NULL} matches if the property is missing or is JSON {@code null}. Any other leaf operation does not
+ * match a missing or {@code null} property, nor an object or an array.</li>
+ * <li>{@code EQUAL}, {@code GRATER_THAN} and {@code LESS_THAN} compare numerically if both the property and the value
+ * to filter on are numbers, or strings that can be parsed as numbers. Otherwise they compare strings.</li>
+ * <li>Comparing strings and matching strings are case-insensitive.</li>
+ * <li>{@code AND} of no children matches, {@code OR} of no children does not match, and {@code NOT_OR} is the
+ * negation of {@code OR}.</li>
+ * </ul>
+ *
+ * <p>
+ * Property names are resolved to slots at compile time, and values to filter on are parsed and case-folded at compile
+ * time. Numeric strings are compared digit by digit with the parsed value, and JSON numbers that are integers in the
+ * range of {@code long} are compared and matched as strings by their digits, so evaluating a record allocates nothing.
+ * The exception is a JSON number out of that subset, which is compared by its {@code BigDecimal} and matched by its
+ * string form. Children of nodes are evaluated in the declared order, or in the order chosen by the statistics if
+ * compiled by {@link #adaptive(FilteringConditionValue, int)}.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public final class FilteringPredicate implements Predicate<JsonObject> {
+
+    private static final int ACCEPT = -1;
+    private static final int REJECT = -2;
+
+    private final Plan plan;
+    private final List<String> slots;
+    private final Leaf[] program;
+    private final int[] onTrue;
+    private final int[] onFalse;
+    private final int entry;
+
+    private FilteringPredicate(Plan plan, List<String> slots) {
+        Compiler compiler = new Compiler();
+
+        this.plan = plan;
+        this.slots = slots;
+        this.entry = compiler.compile(plan, ACCEPT, REJECT);
+        this.program = compiler.program.toArray(Leaf[]::new);
+        this.onTrue = compiler.onTrue.stream().mapToInt(Integer::intValue).toArray();
+        this.onFalse = compiler.onFalse.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Compile the {@code FilteringConditionValue}.
+     *
+     * @param condition the {@code FilteringConditionValue}
+     * @return compiled {@code condition}
+     * @throws NullPointerException if {@code condition} is {@code null}
+     * @throws IllegalArgumentException if {@code condition} has no operation, a leaf has no name or no value to filter
+     * on, or a node has no children
+     * @since 3.0.0
+     */
+    public static FilteringPredicate compile(FilteringConditionValue condition) {
+        Objects.requireNonNull(condition);
+
+        Planner planner = new Planner();
+
+        return new FilteringPredicate(planner.plan(condition), planner.slots());
+    }
+
+    /**
+     * Compile the {@code FilteringConditionValue} that reorders children of nodes by the statistics of the first
+     * records.
+     *
+     * @param condition the {@code FilteringConditionValue}
+     * @param sampleSize number of records to collect the statistics
+     * @return compiled {@code condition}
+     * @throws NullPointerException if {@code condition} is {@code null}
+     * @throws IllegalArgumentException if {@code condition} has no operation, a leaf has no name or no value to filter
+     * on, or a node has no children. Or if {@code sampleSize} is less than 1.
+     * @since 3.0.0
+     */
+    public static Adaptive adaptive(FilteringConditionValue condition, int sampleSize) {
+        return adaptive(condition, sampleSize, c -> {
+        });
+    }
+
+    /**
+     * Compile the {@code FilteringConditionValue} that reorders children of nodes by the statistics of the first
+     * records, and reports the chosen order. Use it to expose the order for tuning the condition, for example by
+     * logging it.
+     *
+     * @param condition the {@code FilteringConditionValue}
+     * @param sampleSize number of records to collect the statistics
+     * @param onOptimized called once with the condition in the chosen order of evaluation, when the statistics have
+     * been collected. It is called by the thread that evaluates the last sampled record.
+     * @return compiled {@code condition}
+     * @throws NullPointerException if {@code condition} or {@code onOptimized} is {@code null}
+     * @throws IllegalArgumentException if {@code condition} has no operation, a leaf has no name or no value to filter
+     * on, or a node has no children. Or if {@code sampleSize} is less than 1.
+     * @since 3.0.0
+     */
+    public static Adaptive adaptive(FilteringConditionValue condition, int sampleSize,
+        Consumer<? super FilteringConditionValue> onOptimized) {
+
+        Objects.requireNonNull(onOptimized);
+
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be positive.");
+        }
+
+        return new Adaptive(compile(condition), sampleSize, onOptimized);
+    }
+
+    /**
+     * Evaluates this on the record.
+     *
+     * @param record the {@code JsonObject}
+     * @return {@code true} if {@code record} matches the condition
+     * @throws NullPointerException if {@code record} is {@code null}
+     * @since 3.0.0
+     */
+    @Override
+    public boolean test(JsonObject record) {
+        Objects.requireNonNull(record);
+
+        int pc = entry;
+
+        while (pc >= 0) {
+            pc = program[pc].test(record) ? onTrue[pc] : onFalse[pc];
+        }
+
+        return pc == ACCEPT;
+    }
+
+    /**
+     * Get property names referenced by the condition, in the order they first appear.
+     *
+     * @return property names
+     * @since 3.0.0
+     */
+    public List<String> getPropertyNames() {
+        return slots;
+    }
+
+    /**
+     * Get the condition in the order of evaluation.
+     *
+     * @return the {@code FilteringConditionValue}
+     * @since 3.0.0
+     */
+    public FilteringConditionValue getCondition() {
+        return plan.condition;
+    }
+
+    /**
+     * Returns a string representation.
+     *
+     * @return a string representation
+     * @since 3.0.0
+     */
+    @Override
+    public String toString() {
+        return "FilteringPredicate{leaves=" + program.length + ", properties=" + slots + "}";
+    }
+
+    /**
+     * Case-fold the string in the same way as comparing and matching strings by conditions.
+     *
+     * @param s the string
+     * @return case-folded {@code s}. It has the same length as {@code s}.
+     * @throws NullPointerException if {@code s} is {@code null}
+     * @since 3.0.0
+     */
+    public static String fold(String s) {
+        return new String(Leaf.fold(s));
+    }
+
+    /**
+     * Adaptive {@code FilteringPredicate}. The first records are evaluated without short-circuiting, collecting
+     * the ratio of {@code true} and the cost of each condition. The cost is estimated by the number of characters
+     * examined, rather than measured by a clock, so that a pause of the thread does not distort the order. After that,
+     * children of each node are reordered
+     * so that a child which is cheap and likely to decide the node is evaluated first, that is in ascending order of
+     * <i>cost / probability of short-circuiting</i>, and the rest of records are evaluated by the reordered
+     * {@code FilteringPredicate}. Conditions have no side effects, so the order does not change the results.
+     *
+     * <p>
+     * Implementation requirements.
+     * <ul>
+     * <li>This class is thread-safe. Records are evaluated one by one while collecting the statistics.</li>
+     * </ul>
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static final class Adaptive implements Predicate<JsonObject> {
+
+        private final FilteringPredicate initial;
+        private final int sampleSize;
+        private final long[] trues;
+        private final long[] costs;
+        private final Consumer<? super FilteringConditionValue> onOptimized;
+        private int sampled;
+        private volatile FilteringPredicate optimized;
+
+        private Adaptive(FilteringPredicate initial, int sampleSize,
+            Consumer<? super FilteringConditionValue> onOptimized) {
+
+            this.initial = initial;
+            this.sampleSize = sampleSize;
+            this.onOptimized = onOptimized;
+            this.trues = new long[initial.plan.end];
+            this.costs = new long[initial.plan.end];
+        }
+
+        /**
+         * Evaluates this on the record.
+         *
+         * @param record the {@code JsonObject}
+         * @return {@code true} if {@code record} matches the condition
+         * @throws NullPointerException if {@code record} is {@code null}
+         * @since 3.0.0
+         */
+        @Override
+        public boolean test(JsonObject record) {
+            FilteringPredicate p = optimized;
+
+            return p != null ? p.test(record) : sample(Objects.requireNonNull(record));
+        }
+
+        /**
+         * Get the condition in the order of evaluation. It is in the declared order until the statistics have been
+         * collected.
+         *
+         * @return the {@code FilteringConditionValue}
+         * @since 3.0.0
+         */
+        public FilteringConditionValue getCondition() {
+            FilteringPredicate p = optimized;
+
+            return (p != null ? p : initial).getCondition();
+        }
+
+        /**
+         * Returns {@code true} if children have been reordered by the statistics.
+         *
+         * @return {@code true} if children have been reordered by the statistics
+         * @since 3.0.0
+         */
+        public boolean isOptimized() {
+            return optimized != null;
+        }
+
+        /**
+         * Returns a string representation.
+         *
+         * @return a string representation
+         * @since 3.0.0
+         */
+        @Override
+        public String toString() {
+            return "FilteringPredicate.Adaptive{optimized=" + isOptimized() + ", condition=" + getCondition() + "}";
+        }
+
+        private synchronized boolean sample(JsonObject record) {
+            if (optimized != null) {
+                return optimized.test(record);
+            }
+
+            boolean result = evaluate(initial.plan, record);
+
+            if (++sampled == sampleSize) {
+                optimized = new FilteringPredicate(reorder(initial.plan), initial.slots);
+                onOptimized.accept(optimized.getCondition());
+            }
+
+            return result;
+        }
+
+        // Note: Evaluates all children, so that the statistics of each child do not depend on its order.
+        private boolean evaluate(Plan plan, JsonObject record) {
+            boolean result = switch (plan) {
+                case LeafPlan leaf -> {
+                    costs[plan.id] += leaf.leaf.cost(record);
+                    yield leaf.leaf.test(record);
+                }
+                case NodePlan node -> {
+                    boolean any = false;
+                    boolean all = true;
+
+                    for (Plan child : node.children) {
+                        long childBefore = costs[child.id];
+
+                        boolean r = evaluate(child, record);
+                        any |= r;
+                        all &= r;
+
+                        costs[plan.id] += costs[child.id] - childBefore;
+                    }
+
+                    yield switch (node.op) {
+                        case AND ->
+                            all;
+                        case OR ->
+                            any;
+                        case NOT_OR ->
+                            !any;
+                    };
+                }
+            };
+
+            if (result) {
+                trues[plan.id]++;
+            }
+
+            return result;
+        }
+
+        private Plan reorder(Plan plan) {
+            if (!(plan instanceof NodePlan node)) {
+                return plan;
+            }
+
+            List<Plan> children = new ArrayList<>(node.children.size());
+
+            for (Plan child : node.children) {
+                children.add(reorder(child));
+            }
+
+            // Note: AND is decided by false, OR and NOT_OR are decided by true. Stable for ties.
+            children.sort(Comparator.comparingDouble(c -> rank(c, node.op == NodeOperation.AND)));
+
+            if (children.equals(node.children)) {
+                return node;
+            }
+
+            FilteringConditionValue condition = new NodeConditionValue.Builder(node.op)
+                .withChildren(children.stream().map(c -> c.condition).toList()).unsafeBuild();
+
+            return new NodePlan(node.id, condition, node.op, children, node.end);
+        }
+
+        private double rank(Plan plan, boolean decidedByFalse) {
+            double cost = costs[plan.id] / (double) sampled;
+            double decisive = (decidedByFalse ? sampled - trues[plan.id] : trues[plan.id]) / (double) sampled;
+
+            // Note: A child that never decides the node is ranked last, in ascending order of cost.
+            return cost / Math.max(decisive, 1.0 / (2.0 * sampled * sampled));
+        }
+    }
+
+    /**
+     * Plan of a condition. It is a validated condition tree, of which each node has a serial number.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private abstract static sealed class Plan permits LeafPlan, NodePlan {
+
+        final int id;
+        final FilteringConditionValue condition;
+        final int end;
+
+        // Note: Serial numbers of a subtree are from id to end (exclusive).
+        Plan(int id, FilteringConditionValue condition, int end) {
+            this.id = id;
+            this.condition = condition;
+            this.end = end;
+        }
+    }
+
+    private static final class LeafPlan extends Plan {
+
+        final Leaf leaf;
+
+        LeafPlan(int id, FilteringConditionValue condition, Leaf leaf) {
+            super(id, condition, id + 1);
+            this.leaf = leaf;
+        }
+    }
+
+    private static final class NodePlan extends Plan {
+
+        final NodeOperation op;
+        final List<Plan> children;
+
+        NodePlan(int id, FilteringConditionValue condition, NodeOperation op, List<Plan> children, int end) {
+            super(id, condition, end);
+            this.op = op;
+            this.children = children;
+        }
+    }
+
+    /**
+     * Planner of the condition tree. It validates conditions, resolves property names to slots and numbers nodes.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Planner {
+
+        private final Map<String, String> slots = new LinkedHashMap<>();
+        private int nextId;
+
+        Plan plan(FilteringConditionValue condition) {
+            if (condition == null) {
+                throw new IllegalArgumentException("Filtering condition must not contain null.");
+            }
+
+            int id = nextId++;
+
+            return switch (condition.getOperation()) {
+                case LeafOperation op when condition instanceof LeafConditionValue leaf ->
+                    new LeafPlan(id, condition, new Leaf(op, slot(leaf.getName()), leaf.getValue()));
+                case NodeOperation op when condition instanceof NodeConditionValue node -> {
+                    List<Plan> children = new ArrayList<>();
+
+                    for (FilteringConditionValue child : children(node)) {
+                        children.add(plan(child));
+                    }
+
+                    yield new NodePlan(id, condition, op, List.copyOf(children), nextId);
+                }
+                case null, default ->
+                    throw new IllegalArgumentException("Invalid filtering condition. " + condition);
+            };
+        }
+
+        List<String> slots() {
+            return List.copyOf(slots.keySet());
+        }
+
+        private List<FilteringConditionValue> children(NodeConditionValue node) {
+            if (node.getChildren() == null) {
+                throw new IllegalArgumentException("Invalid filtering condition. " + node);
+            }
+
+            return node.getChildren();
+        }
+
+        private String slot(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("Property name to filter on must not be null.");
+            }
+
+            // Note: Share one instance per name. Its hash code is cached by the map here, not per record.
+            return slots.computeIfAbsent(name, n -> n);
+        }
+    }
+
+    /**
+     * Compiler of the plan. Children are compiled from last to first, so that jump targets of a child are already
+     * known when it is compiled.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Compiler {
+
+        private final List<Leaf> program = new ArrayList<>();
+        private final List<Integer> onTrue = new ArrayList<>();
+        private final List<Integer> onFalse = new ArrayList<>();
+
+        int compile(Plan plan, int whenTrue, int whenFalse) {
+            return switch (plan) {
+                case LeafPlan leaf ->
+                    emit(leaf.leaf, whenTrue, whenFalse);
+                case NodePlan node ->
+                    compileNode(node.op, node.children, whenTrue, whenFalse);
+            };
+        }
+
+        private int compileNode(NodeOperation op, List<Plan> children, int whenTrue, int whenFalse) {
+            // Note: NOT_OR is OR with swapped outcomes.
+            int t = op == NodeOperation.NOT_OR ? whenFalse : whenTrue;
+            int f = op == NodeOperation.NOT_OR ? whenTrue : whenFalse;
+
+            int next = op == NodeOperation.AND ? t : f;
+
+            for (int i = children.size() - 1; i >= 0; i--) {
+                next = op == NodeOperation.AND
+                    ? compile(children.get(i), next, f)
+                    : compile(children.get(i), t, next);
+            }
+
+            return next;
+        }
+
+        private int emit(Leaf leaf, int whenTrue, int whenFalse) {
+            program.add(leaf);
+            onTrue.add(whenTrue);
+            onFalse.add(whenFalse);
+
+            return program.size() - 1;
+        }
+    }
+
+    /**
+     * Test of a leaf condition.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Leaf {
+
+        private static final int LOOKUP_COST = 4;
+        private static final int NOT_NUMERIC = Integer.MIN_VALUE;
+        private static final long[] POW10 = LongStream.iterate(1, p -> p * 10).limit(19).toArray();
+        private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+        private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+        private final LeafOperation op;
+        private final String name;
+        private final char[] folded;
+        private final BigDecimal number;
+
+        // Note: The number as 0.digits * 10^exponent, where digits have no leading or trailing zeros.
+        private final int sign;
+        private final char[] digits;
+        private final long exponent;
+
+        // Note: A long is compared with the floor of the number. Out of the long range, it is decided by outOfLong.
+        private final int outOfLong;
+        private final long floor;
+        private final boolean integral;
+
+        Leaf(LeafOperation op, String name, String value) {
+            this.op = op;
+            this.name = name;
+
+            if (op != LeafOperation.IS_NULL && value == null) {
+                throw new IllegalArgumentException("Value to filter on must not be null. " + name);
+            }
+
+            this.folded = value != null ? fold(value) : null;
+            this.number = value != null ? parseNumber(value) : null;
+
+            if (number == null) {
+                this.sign = 0;
+                this.digits = null;
+                this.exponent = 0;
+                this.outOfLong = 0;
+                this.floor = 0;
+                this.integral = false;
+                return;
+            }
+
+            BigDecimal d = number.stripTrailingZeros();
+
+            this.sign = d.signum();
+            this.digits = d.unscaledValue().abs().toString().toCharArray();
+            this.exponent = (long) digits.length - d.scale();
+            this.outOfLong = number.compareTo(LONG_MIN) < 0 ? 1 : number.compareTo(LONG_MAX) > 0 ? -1 : 0;
+
+            BigDecimal f = outOfLong == 0 ? number.setScale(0, RoundingMode.FLOOR) : BigDecimal.ZERO;
+
+            this.floor = f.longValueExact();
+            this.integral = outOfLong == 0 && f.compareTo(number) == 0;
+        }
+
+        // Note: A lookup of the property is regarded as a few characters.
+        int cost(JsonObject record) {
+            int len = record.get(name) instanceof JsonString s ? s.getString().length() : 1;
+
+            return LOOKUP_COST + switch (op) {
+                case IS_NULL ->
+                    0;
+                case PARTIAL_MATCH ->
+                    len;
+                default ->
+                    Math.min(len, folded.length);
+            };
+        }
+
+        boolean test(JsonObject record) {
+            JsonValue v = record.get(name);
+
+            if (v == null || v.getValueType() == JsonValue.ValueType.NULL) {
+                return op == LeafOperation.IS_NULL;
+            }
+
+            return switch (v.getValueType()) {
+                case STRING ->
+                    testString(((JsonString) v).getString());
+                case NUMBER ->
+                    testNumber((JsonNumber) v);
+                case TRUE ->
+                    testString("true");
+                case FALSE ->
+                    testString("false");
+                default ->
+                    false;
+            };
+        }
+
+        private boolean testString(String s) {
+            return testText(s, 0, s.length());
+        }
+
+        // Note: The text is s, or the decimal string of v if s is null, so that a number is matched without a string.
+        private boolean testText(String s, long v, int len) {
+            return switch (op) {
+                case EQUAL, GRATER_THAN, LESS_THAN -> {
+                    int cmp = s != null && number != null ? compareNumeric(s) : NOT_NUMERIC;
+
+                    yield matches(cmp != NOT_NUMERIC ? cmp : compareFolded(s, v, len));
+                }
+                case FORWARD_MATCH ->
+                    regionMatches(s, v, len, 0);
+                case BACKWARD_MATCH ->
+                    regionMatches(s, v, len, len - folded.length);
+                case PARTIAL_MATCH ->
+                    indexOf(s, v, len) >= 0;
+                case IS_NULL ->
+                    false;
+            };
+        }
+
+        private boolean testNumber(JsonNumber n) {
+            if (op == LeafOperation.IS_NULL) {
+                return false;
+            }
+
+            boolean ordered = op == LeafOperation.EQUAL || op == LeafOperation.GRATER_THAN
+                || op == LeafOperation.LESS_THAN;
+
+            if (ordered && number != null) {
+                return matches(compare(n));
+            }
+
+            if (n.isIntegral()) {
+                try {
+                    long v = n.longValueExact();
+
+                    return testText(null, v, length(v));
+                } catch (ArithmeticException ignore) {
+                    // Note: Out of long range, so fall back to the string.
+                }
+            }
+
+            return testString(n.toString());
+        }
+
+        private boolean matches(int cmp) {
+            return switch (op) {
+                case EQUAL ->
+                    cmp == 0;
+                case GRATER_THAN ->
+                    cmp > 0;
+                default ->
+                    cmp < 0;
+            };
+        }
+
+        private int compare(JsonNumber n) {
+            if (n.isIntegral()) {
+                try {
+                    return compareLong(n.longValueExact());
+                } catch (ArithmeticException ignore) {
+                    // Note: Out of long range, so fall back to the BigDecimal.
+                }
+            }
+
+            return n.bigDecimalValue().compareTo(number);
+        }
+
+        private int compareLong(long v) {
+            if (outOfLong != 0) {
+                return outOfLong;
+            }
+
+            int cmp = Long.compare(v, floor);
+
+            return cmp != 0 || integral ? cmp : -1;
+        }
+
+        // Note: Same syntax as BigDecimal(String) with ASCII digits. It returns NOT_NUMERIC if s is not numeric.
+        private int compareNumeric(String s) {
+            int len = s.length();
+            int i = 0;
+            int signOf = 1;
+
+            if (len > 0 && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+                signOf = s.charAt(0) == '-' ? -1 : 1;
+                i++;
+            }
+
+            int count = 0;
+            int intCount = 0;
+            int first = -1;
+            int firstAt = -1;
+            boolean dot = false;
+
+            for (; i < len; i++) {
+                char c = s.charAt(i);
+
+                if (c >= '0' && c <= '9') {
+                    if (first < 0 && c != '0') {
+                        first = count;
+                        firstAt = i;
+                    }
+
+                    count++;
+                    intCount += dot ? 0 : 1;
+                } else if (c == '.' && !dot) {
+                    dot = true;
+                } else {
+                    break;
+                }
+            }
+
+            int end = i;
+
+            if (count == 0) {
+                return NOT_NUMERIC;
+            }
+
+            long exp = 0;
+
+            if (i < len) {
+                if (s.charAt(i) != 'e' && s.charAt(i) != 'E') {
+                    return NOT_NUMERIC;
+                }
+
+                int expSign = 1;
+
+                if (++i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                    expSign = s.charAt(i) == '-' ? -1 : 1;
+                    i++;
+                }
+
+                if (i == len) {
+                    return NOT_NUMERIC;
+                }
+
+                for (; i < len; i++) {
+                    char c = s.charAt(i);
+
+                    if (c < '0' || c > '9') {
+                        return NOT_NUMERIC;
+                    }
+
+                    exp = exp * 10 + (c - '0');
+
+                    if (exp > Integer.MAX_VALUE) {
+                        return NOT_NUMERIC;
+                    }
+                }
+
+                exp *= expSign;
+            }
+
+            // Note: BigDecimal rejects a scale out of the int range.
+            long scale = count - intCount - exp;
+
+            if (scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+                return NOT_NUMERIC;
+            }
+
+            if (first < 0) {
+                return -sign;
+            }
+
+            if (signOf != sign) {
+                return Integer.compare(signOf, sign);
+            }
+
+            long e = intCount - first + exp;
+
+            return signOf * (e != exponent ? Long.compare(e, exponent) : compareDigits(s, firstAt, end));
+        }
+
+        // Note: Missing digits of either side are regarded as trailing zeros.
+        private int compareDigits(String s, int from, int to) {
+            int k = 0;
+
+            for (int i = from; i < to; i++) {
+                char c = s.charAt(i);
+
+                if (c == '.') {
+                    continue;
+                }
+
+                char d = k < digits.length ? digits[k] : '0';
+
+                k++;
+
+                if (c != d) {
+                    return c < d ? -1 : 1;
+                }
+            }
+
+            return k < digits.length ? -1 : 0;
+        }
+
+        private int compareFolded(String s, long v, int len) {
+            int n = Math.min(len, folded.length);
+
+            for (int i = 0; i < n; i++) {
+                char c = fold(charAt(s, v, len, i));
+
+                if (c != folded[i]) {
+                    return c - folded[i];
+                }
+            }
+
+            return len - folded.length;
+        }
+
+        private boolean regionMatches(String s, long v, int len, int offset) {
+            if (offset < 0 || len - offset < folded.length) {
+                return false;
+            }
+
+            for (int i = 0; i < folded.length; i++) {
+                if (fold(charAt(s, v, len, offset + i)) != folded[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private int indexOf(String s, long v, int len) {
+            if (folded.length == 0) {
+                return 0;
+            }
+
+            char first = folded[0];
+
+            for (int i = 0, last = len - folded.length; i <= last; i++) {
+                if (fold(charAt(s, v, len, i)) == first && regionMatches(s, v, len, i)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        // Note: The magnitude of Long.MIN_VALUE is negative, so digits are taken as unsigned.
+        private static char charAt(String s, long v, int len, int i) {
+            if (s != null) {
+                return s.charAt(i);
+            }
+
+            if (v < 0 && i == 0) {
+                return '-';
+            }
+
+            long m = v < 0 ? -v : v;
+
+            return (char) ('0' + Long.remainderUnsigned(Long.divideUnsigned(m, POW10[len - 1 - i]), 10));
+        }
+
+        private static int length(long v) {
+            long m = v < 0 ? -v : v;
+            int n = 1;
+
+            while (n < POW10.length && Long.compareUnsigned(m, POW10[n]) >= 0) {
+                n++;
+            }
+
+            return v < 0 ? n + 1 : n;
+        }
+
+        private static char[] fold(String s) {
+            char[] chars = new char[s.length()];
+
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = fold(s.charAt(i));
+            }
+
+            return chars;
+        }
+
+        private static char fold(char c) {
+            if (c < 0x80) {
+                return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+
+            // Note: Same folding as String#equalsIgnoreCase.
+            return Character.toLowerCase(Character.toUpperCase(c));
+        }
+
+        // Note: Checks the characters first, so that most of non-numeric values are rejected without exceptions.
+        private static BigDecimal parseNumber(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+
+                if ((c < '0' || c > '9') && c != '+' && c != '-' && c != '.' && c != 'e' && c != 'E') {
+                    return null;
+                }
+            }
+
+            try {
+                return new BigDecimal(s);
+            } catch (NumberFormatException ignore) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,587 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonValue;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import jp.mydns.projectk.safi.util.JsonValueUtils;
+
+/**
+ * Import pipeline over a JSON array. Each element goes through stages parse, bind, validate, transform and persist.
+ * Stages run concurrently and are connected by bounded queues, so an array of any size is imported with a constant
+ * memory, and a slow stage holds back the previous stages. Persisting is done in batches, so that each batch can be
+ * committed in one transaction.
+ *
+ * <p>
+ * Parsing is done by one thread, because the JSON parser is sequential. Each of the other stages is done by
+ * {@link Builder#withParallelism(Stage, int) the specified number} of threads, so elements may be persisted in a
+ * different order from the array if any parallelism is greater than 1. The thread that calls {@link #run} is one of
+ * the persisting threads, so a persister that relies on the context of the calling thread, such as a transaction or
+ * an {@code EntityManager}, works if parallelism of {@link Stage#PERSIST} is 1.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @param <B> type of bound element
+ * @param <E> type of element to persist
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public class ImportPipeline<B, E> {
+
+    /**
+     * Stage of which parallelism is configurable.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public enum Stage {
+        /**
+         * Binds a {@code JsonValue} to an object.
+         *
+         * @since 3.0.0
+         */
+        BIND,
+        /**
+         * Validates a bound object.
+         *
+         * @since 3.0.0
+         */
+        VALIDATE,
+        /**
+         * Transforms a validated object to an object to persist.
+         *
+         * @since 3.0.0
+         */
+        TRANSFORM,
+        /**
+         * Persists objects in batches.
+         *
+         * @since 3.0.0
+         */
+        PERSIST
+    }
+
+    private static final Item END_OF_ELEMENTS = new Item(null);
+
+    private final List<Function<Object, Object>> stages;
+    private final List<Integer> parallelisms;
+    private final Consumer<? super List<E>> persister;
+    private final int persistParallelism;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final ThreadFactory threadFactory;
+    private final BiConsumer<JsonValue, RuntimeException> rejectionHandler;
+
+    private ImportPipeline(Builder<B, E> builder) {
+        this.stages = new ArrayList<>();
+        this.parallelisms = new ArrayList<>();
+
+        stages.add(erase(builder.binder));
+        parallelisms.add(builder.parallelisms.get(Stage.BIND));
+
+        if (builder.validator != null) {
+            stages.add(erase(builder.validator));
+            parallelisms.add(builder.parallelisms.get(Stage.VALIDATE));
+        }
+
+        stages.add(erase(builder.transformer));
+        parallelisms.add(builder.parallelisms.get(Stage.TRANSFORM));
+
+        this.persister = builder.persister;
+        this.persistParallelism = builder.parallelisms.get(Stage.PERSIST);
+        this.queueCapacity = builder.queueCapacity;
+        this.batchSize = builder.batchSize;
+        this.threadFactory = builder.threadFactory;
+        this.rejectionHandler = builder.rejectionHandler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> erase(Function<?, ?> stage) {
+        return (Function<Object, Object>) stage;
+    }
+
+    /**
+     * Import all elements of {@code jsonArray}. It returns after all elements are persisted and all threads of the
+     * pipeline are finished. If any stage fails, the other stages are stopped and the failure is thrown. Batches that
+     * were persisted before the failure are not rolled back.
+     *
+     * @param jsonArray input stream of JSON array. It is not closed.
+     * @return the {@code Result}
+     * @throws NullPointerException if {@code jsonArray} is {@code null} or if any stage returns {@code null}
+     * @throws IllegalArgumentException if {@code jsonArray} is not a JSON array
+     * @throws InterruptedException if interrupted while waiting for the pipeline
+     * @throws jakarta.json.JsonException if occurs error while parsing {@code jsonArray}
+     * @throws RuntimeException if any stage throws it
+     * @since 3.0.0
+     */
+    public Result run(InputStream jsonArray) throws InterruptedException {
+        Run run = new Run();
+        Stream<JsonValue> elements = JsonValueUtils.toStream(jsonArray);
+
+        try {
+            BlockingQueue<Item> parsed = new ArrayBlockingQueue<>(queueCapacity);
+            Iterator<JsonValue> parser = elements.iterator();
+
+            run.start(1, () -> {
+                while (parser.hasNext()) {
+                    parsed.put(new Item(parser.next()));
+                }
+
+                parsed.put(END_OF_ELEMENTS);
+            });
+
+            BlockingQueue<Item> in = parsed;
+
+            for (int i = 0; i < stages.size(); i++) {
+                in = startStage(run, in, stages.get(i), parallelisms.get(i));
+            }
+
+            BlockingQueue<Item> toPersist = in;
+            Runnable persisting = () -> run.persisted.add(persist(run, toPersist));
+
+            run.start(persistParallelism - 1, persisting::run);
+
+            try {
+                persisting.run();
+            } catch (RuntimeException | Error ex) {
+                run.fail(ex);
+            }
+
+            run.join();
+        } finally {
+            // Note: The input must not be touched after return.
+            run.stop();
+            elements.close();
+        }
+
+        Throwable failure = run.failure.get();
+
+        if (failure instanceof RuntimeException ex) {
+            throw ex;
+        } else if (failure instanceof Error ex) {
+            throw ex;
+        } else if (failure instanceof InterruptedException ex) {
+            throw ex;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+
+        return new Result(run.persisted.sum(), run.rejected.sum());
+    }
+
+    private BlockingQueue<Item> startStage(Run run, BlockingQueue<Item> in, Function<Object, Object> stage,
+        int parallelism) {
+
+        BlockingQueue<Item> out = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger working = new AtomicInteger(parallelism);
+
+        run.start(parallelism, () -> {
+            for (Item item = in.take(); item != END_OF_ELEMENTS; item = in.take()) {
+                try {
+                    item.value = Objects.requireNonNull(stage.apply(item.value));
+                } catch (RuntimeException ex) {
+                    if (rejectionHandler == null) {
+                        throw ex;
+                    }
+
+                    rejectionHandler.accept(item.source, ex);
+                    run.rejected.increment();
+                    continue;
+                }
+
+                out.put(item);
+            }
+
+            // Note: Hand over the end to the other threads of this stage. The last one hands over to the next stage.
+            in.put(END_OF_ELEMENTS);
+
+            if (working.decrementAndGet() == 0) {
+                out.put(END_OF_ELEMENTS);
+            }
+        });
+
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long persist(Run run, BlockingQueue<Item> in) {
+        List<E> batch = new ArrayList<>(batchSize);
+        long persisted = 0;
+
+        try {
+            while (run.failure.get() == null) {
+                // Note: Polling, because the calling thread is not interrupted on failure of the other threads.
+                Item item = in.poll(100, TimeUnit.MILLISECONDS);
+
+                if (item == END_OF_ELEMENTS) {
+                    in.put(END_OF_ELEMENTS);
+                    break;
+                }
+
+                if (item != null) {
+                    batch.add((E) item.value);
+                }
+
+                if (batch.size() >= batchSize) {
+                    persister.accept(Collections.unmodifiableList(batch));
+                    persisted += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!batch.isEmpty() && run.failure.get() == null) {
+                persister.accept(Collections.unmodifiableList(batch));
+                persisted += batch.size();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            run.fail(ex);
+        }
+
+        return persisted;
+    }
+
+    /**
+     * Result of the {@link ImportPipeline#run}.
+     *
+     * <p>
+     * Implementation requirements.
+     * <ul>
+     * <li>This class is immutable and thread-safe.</li>
+     * </ul>
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static class Result {
+
+        private final long persistedCount;
+        private final long rejectedCount;
+
+        private Result(long persistedCount, long rejectedCount) {
+            this.persistedCount = persistedCount;
+            this.rejectedCount = rejectedCount;
+        }
+
+        /**
+         * Get number of persisted elements.
+         *
+         * @return number of persisted elements
+         * @since 3.0.0
+         */
+        public long getPersistedCount() {
+            return persistedCount;
+        }
+
+        /**
+         * Get number of elements that were passed to the rejection handler.
+         *
+         * @return number of rejected elements
+         * @since 3.0.0
+         */
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        /**
+         * Returns a string representation.
+         *
+         * @return a string representation
+         * @since 3.0.0
+         */
+        @Override
+        public String toString() {
+            return "ImportPipeline.Result{" + "persistedCount=" + persistedCount + ", rejectedCount=" + rejectedCount
+                + '}';
+        }
+    }
+
+    /**
+     * Builder of the {@link ImportPipeline}.
+     *
+     * @param <B> type of bound element
+     * @param <E> type of element to persist
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    public static class Builder<B, E> {
+
+        private final Function<? super JsonValue, ? extends B> binder;
+        private final Function<? super B, ? extends E> transformer;
+        private final Consumer<? super List<E>> persister;
+        private final Map<Stage, Integer> parallelisms = new EnumMap<>(Stage.class);
+        private Function<? super B, ? extends B> validator;
+        private int queueCapacity = 1024;
+        private int batchSize = 1000;
+        private ThreadFactory threadFactory = Thread.ofPlatform().daemon().factory();
+        private BiConsumer<JsonValue, RuntimeException> rejectionHandler;
+
+        /**
+         * Constructor.
+         *
+         * @param binder function that binds a {@code JsonValue} to an object
+         * @param transformer function that transforms a bound object to an object to persist
+         * @param persister consumer that persists a batch, for example in one transaction. The batch is
+         * unmodifiable.
+         * @throws NullPointerException if any argument is {@code null}
+         * @since 3.0.0
+         */
+        public Builder(Function<? super JsonValue, ? extends B> binder, Function<? super B, ? extends E> transformer,
+            Consumer<? super List<E>> persister) {
+
+            this.binder = Objects.requireNonNull(binder);
+            this.transformer = Objects.requireNonNull(transformer);
+            this.persister = Objects.requireNonNull(persister);
+
+            for (Stage s : Stage.values()) {
+                parallelisms.put(s, 1);
+            }
+        }
+
+        /**
+         * Set function that validates a bound object. It returns the valid object, or throws an exception if invalid.
+         * Default is no validation.
+         *
+         * @param validator function that validates a bound object
+         * @return updated this
+         * @throws NullPointerException if {@code validator} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<B, E> withValidator(Function<? super B, ? extends B> validator) {
+            this.validator = Objects.requireNonNull(validator);
+            return this;
+        }
+
+        /**
+         * Set number of threads of the stage. Functions of the stage must be thread-safe if greater than 1. For
+         * {@link Stage#PERSIST}, one of them is the thread that calls {@link ImportPipeline#run}. Default is 1.
+         *
+         * @param stage the {@code Stage}
+         * @param parallelism number of threads
+         * @return updated this
+         * @throws NullPointerException if {@code stage} is {@code null}
+         * @throws IllegalArgumentException if {@code parallelism} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<B, E> withParallelism(Stage stage, int parallelism) {
+            Objects.requireNonNull(stage);
+
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive.");
+            }
+
+            parallelisms.put(stage, parallelism);
+            return this;
+        }
+
+        /**
+         * Set capacity of each queue between stages. Default is 1024.
+         *
+         * @param queueCapacity number of elements
+         * @return updated this
+         * @throws IllegalArgumentException if {@code queueCapacity} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<B, E> withQueueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be positive.");
+            }
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Set maximum number of elements that are persisted at once. Default is 1000.
+         *
+         * @param batchSize number of elements
+         * @return updated this
+         * @throws IllegalArgumentException if {@code batchSize} is less than 1
+         * @since 3.0.0
+         */
+        public Builder<B, E> withBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be positive.");
+            }
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Set the {@code ThreadFactory} that creates threads of the pipeline. In a container, it should be a managed
+         * one if a stage uses container services. Default creates platform daemon threads.
+         *
+         * @param threadFactory the {@code ThreadFactory}
+         * @return updated this
+         * @throws NullPointerException if {@code threadFactory} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<B, E> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory);
+            return this;
+        }
+
+        /**
+         * Set handler of elements that failed to bind, validate or transform. The handler receives the source element
+         * and the exception, and the element is skipped. It must be thread-safe. Default is none, that fails the
+         * import.
+         *
+         * @param rejectionHandler handler of rejected elements
+         * @return updated this
+         * @throws NullPointerException if {@code rejectionHandler} is {@code null}
+         * @since 3.0.0
+         */
+        public Builder<B, E> withRejectionHandler(BiConsumer<JsonValue, RuntimeException> rejectionHandler) {
+            this.rejectionHandler = Objects.requireNonNull(rejectionHandler);
+            return this;
+        }
+
+        /**
+         * Build a new instance.
+         *
+         * @return new instance of the {@code ImportPipeline}
+         * @since 3.0.0
+         */
+        public ImportPipeline<B, E> build() {
+            return new ImportPipeline<>(this);
+        }
+    }
+
+    private static class Item {
+
+        private final JsonValue source;
+        private Object value;
+
+        private Item(JsonValue source) {
+            this.source = source;
+            this.value = source;
+        }
+    }
+
+    // Note: State of one import. Threads of all stages and the first failure.
+    private class Run {
+
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LongAdder persisted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private void start(int count, InterruptibleTask task) {
+            for (int i = 0; i < count; i++) {
+                Thread t = threadFactory.newThread(() -> {
+                    try {
+                        task.run();
+                    } catch (InterruptedException ex) {
+                        // Note: Stopped by the failure of another thread.
+                    } catch (RuntimeException | Error ex) {
+                        fail(ex);
+                    }
+                });
+
+                synchronized (threads) {
+                    threads.add(t);
+                }
+
+                t.start();
+
+                if (failure.get() != null) {
+                    t.interrupt();
+                }
+            }
+        }
+
+        private void fail(Throwable ex) {
+            if (failure.compareAndSet(null, ex)) {
+                stopThreads();
+            }
+        }
+
+        private void stopThreads() {
+            synchronized (threads) {
+                threads.forEach(Thread::interrupt);
+            }
+        }
+
+        private void join() throws InterruptedException {
+            for (Thread t : threads) {
+                t.join();
+            }
+        }
+
+        private void stop() {
+            stopThreads();
+
+            boolean interrupted = false;
+
+            for (Thread t : threads) {
+                while (t.isAlive()) {
+                    try {
+                        t.join();
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleTask {
+
+        void run() throws InterruptedException;
+    }
+}
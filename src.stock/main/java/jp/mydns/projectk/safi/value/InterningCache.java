@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Bounded cache that shares one instance among equal keys. It is used to share immutable values that are made from
+ * the same content, such as values made from the same JSON text. Least recently used entries are evicted when it
+ * exceeds the maximum size.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is thread-safe.</li>
+ * <li>Values must be immutable, because they are shared.</li>
+ * </ul>
+ *
+ * @param <K> key type. It must implement {@link Object#equals(Object)} and {@link Object#hashCode()} by content.
+ * @param <V> value type
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public final class InterningCache<K, V> {
+
+    private final StripedCache<K, V> cache;
+
+    /**
+     * Construct with maximum size.
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if {@code maximumSize} is less than 1
+     * @since 3.0.0
+     */
+    public InterningCache(int maximumSize) {
+        this.cache = new StripedCache<>(maximumSize);
+    }
+
+    /**
+     * Get the value that is shared among keys equal to {@code key}. If it is not cached, it is made by {@code loader}
+     * and cached. Since {@code loader} is called without lock, it may be called more than once for the same key at
+     * the same time, but only one of the results is shared.
+     *
+     * @param key the key
+     * @param loader function that makes a value from {@code key}
+     * @return the shared value
+     * @throws NullPointerException if any argument is {@code null} or if {@code loader} returns {@code null}
+     * @since 3.0.0
+     */
+    public V intern(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(loader);
+
+        V value = cache.get(Objects.requireNonNull(key));
+
+        if (value != null) {
+            return value;
+        }
+
+        return cache.putIfAbsent(key, Objects.requireNonNull(loader.apply(key)));
+    }
+
+    /**
+     * Get number of cached entries.
+     *
+     * @return number of cached entries
+     * @since 3.0.0
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get number of times that the value was already cached.
+     *
+     * @return number of hits
+     * @since 3.0.0
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Get number of times that the value was made by loader.
+     *
+     * @return number of misses
+     * @since 3.0.0
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+}
@@ -28,9 +28,14 @@ package jp.mydns.projectk.safi.value;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.json.JsonObject;
 import jakarta.json.bind.annotation.JsonbTypeDeserializer;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
 import jakarta.json.bind.serializer.DeserializationContext;
 import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.bind.serializer.JsonbSerializer;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -46,6 +51,17 @@ import jp.mydns.projectk.safi.constant.JobStatus;
 import jp.mydns.projectk.safi.util.CollectionUtils;
 import jp.mydns.projectk.safi.validator.TimeAccuracy;
 import jp.mydns.projectk.safi.validator.TimeRange;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readEnum;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readPersistable;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readStringList;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.skipValue;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeEnum;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeJson;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeObject;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writePersistable;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeStringList;
 
 /**
  * <i>Job</i> information. {@code Job} representations that life cycle of one batch process.
@@ -465,6 +481,7 @@ public interface JobValue extends PersistableValue {
          * @version 3.0.0
          * @since 3.0.0
          */
+        @JsonbTypeSerializer(JobValue.Serializer.class)
         protected static class Bean extends AbstractBuilder.AbstractBean implements JobValue {
 
             private String id;
@@ -795,7 +812,47 @@ public interface JobValue extends PersistableValue {
     }
 
     /**
-     * JSON deserializer for {@code JobValue}.
+     * JSON serializer for {@code JobValue} that is built by builder. It writes properties directly to the generator, in
+     * the same order as the reflective binding.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Serializer implements JsonbSerializer<JobValue> {
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public void serialize(JobValue job, JsonGenerator gen, SerializationContext ctx) {
+            gen.writeStartObject();
+
+            writePersistable(job, gen, ctx);
+            writeObject(gen, "beginTime", job.getBeginTime().orElse(null), ctx);
+            writeObject(gen, "endTime", job.getEndTime().orElse(null), ctx);
+            writeString(gen, "id", job.getId());
+            writeObject(gen, "jobdef", job.getJobdef(), ctx);
+            writeString(gen, "jobdefId", job.getJobdefId());
+            writeEnum(gen, "kind", job.getKind());
+            writeObject(gen, "limitTime", job.getLimitTime(), ctx);
+            writeJson(gen, "properties", job.getProperties());
+            writeStringList(gen, "resultMessages", job.getResultMessages().orElse(null));
+            writeObject(gen, "schedef", job.getSchedef().orElse(null), ctx);
+            writeString(gen, "schedefId", job.getSchedefId().orElse(null));
+            writeObject(gen, "scheduleTime", job.getScheduleTime(), ctx);
+            writeEnum(gen, "status", job.getStatus());
+            writeEnum(gen, "target", job.getTarget());
+
+            gen.writeEnd();
+        }
+    }
+
+    /**
+     * JSON deserializer for {@code JobValue}. Properties are read from the parser by hand, without reflective binding,
+     * straight into the builder.
      *
      * @author riru
      * @version 3.0.0
@@ -810,7 +867,55 @@ public interface JobValue extends PersistableValue {
          */
         @Override
         public JobValue deserialize(JsonParser jp, DeserializationContext dc, Type type) {
-            return dc.deserialize(Builder.Bean.class, jp);
+            if (!jp.hasNext()) {
+                return null;    // Note: The parser is scoped to a null value.
+            }
+
+            Builder builder = new Builder();
+
+            // Note: The parser is at the start of object.
+            for (Event e = jp.next(); e != Event.END_OBJECT; e = jp.next()) {
+                String name = jp.getString();
+                Event value = jp.next();
+
+                switch (name) {
+                    case "id" ->
+                        builder.withId(readString(jp, value, dc));
+                    case "status" ->
+                        builder.withStatus(readEnum(jp, value, dc, JobStatus.class));
+                    case "kind" ->
+                        builder.withKind(readEnum(jp, value, dc, JobKind.class));
+                    case "target" ->
+                        builder.withTarget(readEnum(jp, value, dc, JobTarget.class));
+                    case "scheduleTime" ->
+                        builder.withScheduleTime(dc.deserialize(OffsetDateTime.class, jp));
+                    case "limitTime" ->
+                        builder.withLimitTime(dc.deserialize(OffsetDateTime.class, jp));
+                    case "beginTime" ->
+                        builder.withBeginTime(dc.deserialize(OffsetDateTime.class, jp));
+                    case "endTime" ->
+                        builder.withEndTime(dc.deserialize(OffsetDateTime.class, jp));
+                    case "properties" ->
+                        builder.withProperties(dc.deserialize(JsonObject.class, jp));
+                    case "jobdefId" ->
+                        builder.withJobdefId(readString(jp, value, dc));
+                    case "jobdef" ->
+                        builder.withJobdef(dc.deserialize(JobdefValue.class, jp));
+                    case "schedefId" ->
+                        builder.withSchedefId(readString(jp, value, dc));
+                    case "schedef" ->
+                        builder.withSchedef(dc.deserialize(SchedefValue.class, jp));
+                    case "resultMessages" ->
+                        builder.withResultMessages(readStringList(jp, value, dc));
+                    default -> {
+                        if (!readPersistable(builder, name, value, jp, dc)) {
+                            skipValue(jp, value);
+                        }
+                    }
+                }
+            }
+
+            return builder.unsafeBuild();
         }
     }
 }
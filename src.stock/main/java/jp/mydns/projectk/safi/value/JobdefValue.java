@@ -28,9 +28,14 @@ package jp.mydns.projectk.safi.value;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.json.JsonObject;
 import jakarta.json.bind.annotation.JsonbTypeDeserializer;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
 import jakarta.json.bind.serializer.DeserializationContext;
 import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.bind.serializer.JsonbSerializer;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -46,6 +51,17 @@ import jp.mydns.projectk.safi.util.CollectionUtils;
 import jp.mydns.projectk.safi.validator.DurationRange;
 import jp.mydns.projectk.safi.validator.PositiveOrZeroDuration;
 import jp.mydns.projectk.safi.validator.TimeAccuracy;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readEnum;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readNamed;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readStringMap;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.skipValue;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeEnum;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeJson;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeNamed;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeObject;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeStringMap;
 
 /**
  * Definition for creates a <i>Job</i>.
@@ -350,6 +366,7 @@ The key is the property name after transformation, and the value is the transfor
          * @version 3.0.0
          * @since 3.0.0
          */
+        @JsonbTypeSerializer(JobdefValue.Serializer.class)
         protected static class Bean extends AbstractBuilder.AbstractBean implements JobdefValue {
 
             private String id;
@@ -559,7 +576,41 @@ The key is the property name after transformation, and the value is the transfor
     }
 
     /**
-     * JSON deserializer for {@code JobdefValue}.
+     * JSON serializer for {@code JobdefValue} that is built by builder. It writes properties directly to the
+     * generator, in the same order as the reflective binding.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Serializer implements JsonbSerializer<JobdefValue> {
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public void serialize(JobdefValue jobdef, JsonGenerator gen, SerializationContext ctx) {
+            gen.writeStartObject();
+
+            writeNamed(jobdef, gen, ctx);
+            writeObject(gen, "filtdef", jobdef.getFiltdef().orElse(null), ctx);
+            writeString(gen, "id", jobdef.getId());
+            writeEnum(gen, "jobKind", jobdef.getJobKind());
+            writeJson(gen, "jobProperties", jobdef.getJobProperties());
+            writeEnum(gen, "jobTarget", jobdef.getJobTarget());
+            writeString(gen, "pluginName", jobdef.getPluginName().orElse(null));
+            writeObject(gen, "timeout", jobdef.getTimeout(), ctx);
+            writeStringMap(gen, "trnsdef", jobdef.getTrnsdef().orElse(null));
+
+            gen.writeEnd();
+        }
+    }
+
+    /**
+     * JSON deserializer for {@code JobdefValue}. Properties are read from the parser by hand, without reflective
+     * binding, straight into the builder.
      *
      * @author riru
      * @version 3.0.0
@@ -574,7 +625,43 @@ The key is the property name after transformation, and the value is the transfor
          */
         @Override
         public JobdefValue deserialize(JsonParser jp, DeserializationContext dc, Type type) {
-            return dc.deserialize(Builder.Bean.class, jp);
+            if (!jp.hasNext()) {
+                return null;    // Note: The parser is scoped to a null value.
+            }
+
+            Builder builder = new Builder();
+
+            // Note: The parser is at the start of object.
+            for (Event e = jp.next(); e != Event.END_OBJECT; e = jp.next()) {
+                String name = jp.getString();
+                Event value = jp.next();
+
+                switch (name) {
+                    case "id" ->
+                        builder.withId(readString(jp, value, dc));
+                    case "jobKind" ->
+                        builder.withJobKind(readEnum(jp, value, dc, JobKind.class));
+                    case "jobTarget" ->
+                        builder.withJobTarget(readEnum(jp, value, dc, JobTarget.class));
+                    case "timeout" ->
+                        builder.withTimeout(dc.deserialize(Duration.class, jp));
+                    case "pluginName" ->
+                        builder.withPluginName(readString(jp, value, dc));
+                    case "trnsdef" ->
+                        builder.withTrnsdef(readStringMap(jp, value, dc));
+                    case "filtdef" ->
+                        builder.withFiltdef(dc.deserialize(FiltdefValue.class, jp));
+                    case "jobProperties" ->
+                        builder.withJobProperties(dc.deserialize(JsonObject.class, jp));
+                    default -> {
+                        if (!readNamed(builder, name, value, jp, dc)) {
+                            skipValue(jp, value);
+                        }
+                    }
+                }
+            }
+
+            return builder.unsafeBuild();
         }
     }
 }
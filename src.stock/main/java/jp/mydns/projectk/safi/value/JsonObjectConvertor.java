@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonException;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The {@link ContentMap.BinaryConvertor} for {@code JsonObject}. It is encoded in a compact binary form instead of JSON
+ * text.
+ *
+ * <p>
+ * Each value is a one byte tag followed by its body. Lengths and counts are unsigned variable-length integers, and
+ * integral numbers that fit in {@code long} are zigzag variable-length integers. Other numbers are kept as the text of
+ * {@code BigDecimal}, so they are restored exactly.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public class JsonObjectConvertor implements ContentMap.BinaryConvertor<JsonObject> {
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int STRING = 3;
+    private static final int LONG = 4;
+    private static final int DECIMAL = 5;
+    private static final int ARRAY = 6;
+    private static final int OBJECT = 7;
+
+    private final JsonProvider provider = JsonProvider.provider();
+
+    /**
+     * Serialize to bytes.
+     *
+     * @param c content value
+     * @param os where to write serialized content value
+     * @throws IOException if occurs I/O error
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 3.0.0
+     */
+    @Override
+    public void serialize(JsonObject c, OutputStream os) throws IOException {
+        write(Objects.requireNonNull(c), Objects.requireNonNull(os));
+    }
+
+    /**
+     * De-serialize from bytes.
+     *
+     * @param buf serialized content value
+     * @return content value
+     * @throws NullPointerException if {@code buf} is {@code null}
+     * @throws JsonException if {@code buf} is malformed
+     * @since 3.0.0
+     */
+    @Override
+    public JsonObject deserialize(ByteBuffer buf) {
+        try {
+            return read(Objects.requireNonNull(buf)).asJsonObject();
+        } catch (RuntimeException ex) {
+            throw new JsonException("Malformed as binary JSON object.", ex);
+        }
+    }
+
+    private void write(JsonValue v, OutputStream os) throws IOException {
+        switch (v.getValueType()) {
+            case NULL ->
+                os.write(NULL);
+            case TRUE ->
+                os.write(TRUE);
+            case FALSE ->
+                os.write(FALSE);
+            case STRING -> {
+                os.write(STRING);
+                writeString(JsonString.class.cast(v).getString(), os);
+            }
+            case NUMBER ->
+                writeNumber(JsonNumber.class.cast(v), os);
+            case ARRAY -> {
+                JsonArray array = v.asJsonArray();
+                os.write(ARRAY);
+                writeVarLong(array.size(), os);
+
+                for (JsonValue e : array) {
+                    write(e, os);
+                }
+            }
+            case OBJECT -> {
+                JsonObject object = v.asJsonObject();
+                os.write(OBJECT);
+                writeVarLong(object.size(), os);
+
+                for (Map.Entry<String, JsonValue> e : object.entrySet()) {
+                    writeString(e.getKey(), os);
+                    write(e.getValue(), os);
+                }
+            }
+        }
+    }
+
+    private void writeNumber(JsonNumber n, OutputStream os) throws IOException {
+        if (n.isIntegral()) {
+            try {
+                long l = n.longValueExact();
+                os.write(LONG);
+                writeVarLong((l << 1) ^ (l >> 63), os);
+                return;
+            } catch (ArithmeticException ignore) {
+                // Note: It does not fit in long, so it is written as decimal.
+            }
+        }
+
+        os.write(DECIMAL);
+        writeString(n.bigDecimalValue().toString(), os);
+    }
+
+    private void writeString(String s, OutputStream os) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length, os);
+        os.write(bytes);
+    }
+
+    private void writeVarLong(long l, OutputStream os) throws IOException {
+        while ((l & ~0x7FL) != 0) {
+            os.write((int) (l & 0x7F) | 0x80);
+            l >>>= 7;
+        }
+
+        os.write((int) l);
+    }
+
+    private JsonValue read(ByteBuffer buf) {
+        return switch (buf.get()) {
+            case NULL ->
+                JsonValue.NULL;
+            case TRUE ->
+                JsonValue.TRUE;
+            case FALSE ->
+                JsonValue.FALSE;
+            case STRING ->
+                provider.createValue(readString(buf));
+            case LONG -> {
+                long l = readVarLong(buf);
+                yield provider.createValue((l >>> 1) ^ -(l & 1));
+            }
+            case DECIMAL ->
+                provider.createValue(new BigDecimal(readString(buf)));
+            case ARRAY -> {
+                JsonArrayBuilder b = provider.createArrayBuilder();
+
+                for (long i = readVarLong(buf); i > 0; i--) {
+                    b.add(read(buf));
+                }
+
+                yield b.build();
+            }
+            case OBJECT -> {
+                JsonObjectBuilder b = provider.createObjectBuilder();
+
+                for (long i = readVarLong(buf); i > 0; i--) {
+                    String k = readString(buf);
+                    b.add(k, read(buf));
+                }
+
+                yield b.build();
+            }
+            default ->
+                throw new IllegalStateException("Unknown tag.");
+        };
+    }
+
+    private String readString(ByteBuffer buf) {
+        int length = Math.toIntExact(readVarLong(buf));
+
+        if (buf.hasArray()) {
+            int offset = buf.arrayOffset() + buf.position();
+            buf.position(buf.position() + length);
+            return new String(buf.array(), offset, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong(ByteBuffer buf) {
+        long l = 0;
+
+        for (int shift = 0;; shift += 7) {
+            byte b = buf.get();
+            l |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return l;
+            }
+        }
+    }
+}
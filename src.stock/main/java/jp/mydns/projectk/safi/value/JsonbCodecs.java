@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonValue;
+import jakarta.json.bind.JsonbException;
+import jakarta.json.bind.serializer.DeserializationContext;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the hand-written JSON-B codecs of the values. The readers take the parser positioned at the value of a
+ * property together with its event, and the writers skip a {@code null} value as the reflective binding does.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is stateless and thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+final class JsonbCodecs {
+
+    private JsonbCodecs() {
+    }
+
+    /**
+     * Read a property of the {@code PersistableValue} into the builder.
+     *
+     * @param builder the builder
+     * @param name property name
+     * @param value event of the property value
+     * @param parser the {@code JsonParser}
+     * @param ctx the {@code DeserializationContext}
+     * @return {@code true} if {@code name} is a property of the {@code PersistableValue}, otherwise {@code false}
+     * @throws JsonbException if the value is not suitable for the property
+     * @since 3.0.0
+     */
+    static boolean readPersistable(PersistableValue.AbstractBuilder<?, ?> builder, String name, Event value,
+        JsonParser parser, DeserializationContext ctx) {
+
+        switch (name) {
+            case "note" ->
+                builder.withNote(readString(parser, value, ctx));
+            case "version" ->
+                builder.withVersion(readInt(parser, value, ctx));
+            case "registerTime" ->
+                builder.withRegisterTime(ctx.deserialize(OffsetDateTime.class, parser));
+            case "registerAccountId" ->
+                builder.withRegisterAccountId(readString(parser, value, ctx));
+            case "registerProcessName" ->
+                builder.withRegisterProcessName(readString(parser, value, ctx));
+            case "updateTime" ->
+                builder.withUpdateTime(ctx.deserialize(OffsetDateTime.class, parser));
+            case "updateAccountId" ->
+                builder.withUpdateAccountId(readString(parser, value, ctx));
+            case "updateProcessName" ->
+                builder.withUpdateProcessName(readString(parser, value, ctx));
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Read a property of the {@code NamedValue}, including the properties of the {@code PersistableValue}, into the
+     * builder.
+     *
+     * @param builder the builder
+     * @param name property name
+     * @param value event of the property value
+     * @param parser the {@code JsonParser}
+     * @param ctx the {@code DeserializationContext}
+     * @return {@code true} if {@code name} is a property of the {@code NamedValue}, otherwise {@code false}
+     * @throws JsonbException if the value is not suitable for the property
+     * @since 3.0.0
+     */
+    static boolean readNamed(NamedValue.AbstractBuilder<?, ?> builder, String name, Event value, JsonParser parser,
+        DeserializationContext ctx) {
+
+        switch (name) {
+            case "name" ->
+                builder.withName(readString(parser, value, ctx));
+            case "validityPeriod" ->
+                builder.withValidityPeriod(ctx.deserialize(ValidityPeriodValue.class, parser));
+            default -> {
+                return readPersistable(builder, name, value, parser, ctx);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Write the properties of the {@code PersistableValue}.
+     *
+     * @param src source value
+     * @param gen the {@code JsonGenerator}
+     * @param ctx the {@code SerializationContext}
+     * @since 3.0.0
+     */
+    static void writePersistable(PersistableValue src, JsonGenerator gen, SerializationContext ctx) {
+        writeString(gen, "note", src.getNote().orElse(null));
+        writeString(gen, "registerAccountId", src.getRegisterAccountId().orElse(null));
+        writeString(gen, "registerProcessName", src.getRegisterProcessName().orElse(null));
+        writeObject(gen, "registerTime", src.getRegisterTime().orElse(null), ctx);
+        writeString(gen, "updateAccountId", src.getUpdateAccountId().orElse(null));
+        writeString(gen, "updateProcessName", src.getUpdateProcessName().orElse(null));
+        writeObject(gen, "updateTime", src.getUpdateTime().orElse(null), ctx);
+        gen.write("version", src.getVersion());
+    }
+
+    /**
+     * Write the properties of the {@code NamedValue}, including the properties of the {@code PersistableValue}.
+     *
+     * @param src source value
+     * @param gen the {@code JsonGenerator}
+     * @param ctx the {@code SerializationContext}
+     * @since 3.0.0
+     */
+    static void writeNamed(NamedValue src, JsonGenerator gen, SerializationContext ctx) {
+        writePersistable(src, gen, ctx);
+        writeString(gen, "name", src.getName().orElse(null));
+        writeObject(gen, "validityPeriod", src.getValidityPeriod(), ctx);
+    }
+
+    /**
+     * Read a string.
+     *
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @param ctx the {@code DeserializationContext}
+     * @return read value. It is {@code null} if JSON is null.
+     * @since 3.0.0
+     */
+    static String readString(JsonParser parser, Event value, DeserializationContext ctx) {
+        return value == Event.VALUE_STRING ? parser.getString() : ctx.deserialize(String.class, parser);
+    }
+
+    /**
+     * Read an {@code int}.
+     *
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @param ctx the {@code DeserializationContext}
+     * @return read value
+     * @throws JsonbException if JSON is null or not an integer
+     * @since 3.0.0
+     */
+    static int readInt(JsonParser parser, Event value, DeserializationContext ctx) {
+        if (value == Event.VALUE_NUMBER && parser.isIntegralNumber()) {
+            return parser.getInt();
+        }
+
+        Integer read = ctx.deserialize(Integer.class, parser);
+
+        if (read == null) {
+            throw new JsonbException("Unexpected JSON event " + value + ", expected " + Event.VALUE_NUMBER + ".");
+        }
+
+        return read;
+    }
+
+    /**
+     * Read an enum constant by its name.
+     *
+     * @param <E> enum type
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @param ctx the {@code DeserializationContext}
+     * @param type enum type
+     * @return read value. It is {@code null} if JSON is null.
+     * @throws JsonbException if no constant has the name
+     * @since 3.0.0
+     */
+    static <E extends Enum<E>> E readEnum(JsonParser parser, Event value, DeserializationContext ctx, Class<E> type) {
+        if (value != Event.VALUE_STRING) {
+            return ctx.deserialize(type, parser);
+        }
+
+        try {
+            return Enum.valueOf(type, parser.getString());
+        } catch (IllegalArgumentException ex) {
+            throw new JsonbException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Read an object of string values.
+     *
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @param ctx the {@code DeserializationContext}
+     * @return read value in the member order. It is {@code null} if JSON is null.
+     * @throws JsonbException if JSON is neither an object nor null
+     * @since 3.0.0
+     */
+    static Map<String, String> readStringMap(JsonParser parser, Event value, DeserializationContext ctx) {
+        if (value == Event.VALUE_NULL) {
+            return null;
+        }
+
+        requireEvent(Event.START_OBJECT, value);
+
+        Map<String, String> values = new LinkedHashMap<>();
+
+        for (Event e = parser.next(); e != Event.END_OBJECT; e = parser.next()) {
+            String name = parser.getString();
+            values.put(name, readString(parser, parser.next(), ctx));
+        }
+
+        return values;
+    }
+
+    /**
+     * Read an array of string values.
+     *
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @param ctx the {@code DeserializationContext}
+     * @return read value. It is {@code null} if JSON is null.
+     * @throws JsonbException if JSON is neither an array nor null
+     * @since 3.0.0
+     */
+    static List<String> readStringList(JsonParser parser, Event value, DeserializationContext ctx) {
+        if (value == Event.VALUE_NULL) {
+            return null;
+        }
+
+        requireEvent(Event.START_ARRAY, value);
+
+        List<String> values = new ArrayList<>();
+
+        for (Event e = parser.next(); e != Event.END_ARRAY; e = parser.next()) {
+            values.add(readString(parser, e, ctx));
+        }
+
+        return values;
+    }
+
+    /**
+     * Skip the value.
+     *
+     * @param parser the {@code JsonParser}
+     * @param value event of the value
+     * @since 3.0.0
+     */
+    static void skipValue(JsonParser parser, Event value) {
+        if (value == Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (value == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    /**
+     * Require the event.
+     *
+     * @param expected expected event
+     * @param actual actual event
+     * @throws JsonbException if {@code actual} is not {@code expected}
+     * @since 3.0.0
+     */
+    static void requireEvent(Event expected, Event actual) {
+        if (actual != expected) {
+            throw new JsonbException("Unexpected JSON event " + actual + ", expected " + expected + ".");
+        }
+    }
+
+    /**
+     * Write a string property if the value is not {@code null}.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @since 3.0.0
+     */
+    static void writeString(JsonGenerator gen, String name, String value) {
+        if (value != null) {
+            gen.write(name, value);
+        }
+    }
+
+    /**
+     * Write an enum property by its name if the value is not {@code null}.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @since 3.0.0
+     */
+    static void writeEnum(JsonGenerator gen, String name, Enum<?> value) {
+        if (value != null) {
+            gen.write(name, value.name());
+        }
+    }
+
+    /**
+     * Write a JSON property if the value is not {@code null}.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @since 3.0.0
+     */
+    static void writeJson(JsonGenerator gen, String name, JsonValue value) {
+        if (value != null) {
+            gen.write(name, value);
+        }
+    }
+
+    /**
+     * Write an object property of string values if the value is not {@code null}. A {@code null} member is written as
+     * JSON null.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @since 3.0.0
+     */
+    static void writeStringMap(JsonGenerator gen, String name, Map<String, String> value) {
+        if (value == null) {
+            return;
+        }
+
+        gen.writeStartObject(name);
+
+        value.forEach((k, v) -> {
+            if (v == null) {
+                gen.writeNull(k);
+            } else {
+                gen.write(k, v);
+            }
+        });
+
+        gen.writeEnd();
+    }
+
+    /**
+     * Write an array property of string values if the value is not {@code null}. A {@code null} element is written as
+     * JSON null.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @since 3.0.0
+     */
+    static void writeStringList(JsonGenerator gen, String name, List<String> value) {
+        if (value == null) {
+            return;
+        }
+
+        gen.writeStartArray(name);
+
+        for (String v : value) {
+            if (v == null) {
+                gen.writeNull();
+            } else {
+                gen.write(v);
+            }
+        }
+
+        gen.writeEnd();
+    }
+
+    /**
+     * Write a property by the {@code SerializationContext} if the value is not {@code null}. It is used for the values
+     * whose format follows the JSON-B configuration, such as date-time and duration.
+     *
+     * @param gen the {@code JsonGenerator}
+     * @param name property name
+     * @param value property value
+     * @param ctx the {@code SerializationContext}
+     * @since 3.0.0
+     */
+    static void writeObject(JsonGenerator gen, String name, Object value, SerializationContext ctx) {
+        if (value != null) {
+            ctx.serialize(name, value, gen);
+        }
+    }
+}
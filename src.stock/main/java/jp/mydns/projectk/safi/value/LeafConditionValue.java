@@ -26,6 +26,7 @@
 package jp.mydns.projectk.safi.value;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.groups.Default;
 import java.util.Objects;
@@ -154,6 +155,7 @@ public interface LeafConditionValue extends FilteringConditionValue {
             return new Builder.Bean(this);
         }
 
+        @JsonbTypeSerializer(FilteringConditionValue.Serializer.class)
         protected static class Bean extends AbstractBuilder.AbstractBean implements LeafConditionValue {
 
             private final String name;
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.LeafOperation;
+
+/**
+ * Index of a string property for {@code FORWARD_MATCH}, {@code BACKWARD_MATCH} and {@code PARTIAL_MATCH}. It finds
+ * keys of which property matches without scanning all contents. Strings are case-folded in the same way as
+ * {@link FilteringPredicate}, so the result is the same as filtering by a leaf condition.
+ *
+ * <p>
+ * Each kind of match has its own index, which is built on the first lookup of the kind.
+ * <ul>
+ * <li>{@code FORWARD_MATCH} binary-searches properties in sorted order, and reads the matching range.</li>
+ * <li>{@code BACKWARD_MATCH} does the same over reversed properties.</li>
+ * <li>{@code PARTIAL_MATCH} intersects sorted posting lists of trigrams in the value to find, and verifies each
+ * candidate. A value shorter than a trigram is found by scanning all properties.</li>
+ * </ul>
+ * A sorted array is used instead of a trie, because it holds millions of properties in a few arrays and a lookup of
+ * it costs the same {@code O(log n)} plus the matches.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public class MatchIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = {};
+
+    private final String[] keys;
+    private final String[] folded;
+    private volatile Sorted forward;
+    private volatile Sorted backward;
+    private volatile Map<Long, int[]> trigrams;
+
+    private MatchIndex(List<String> keys, List<String> folded) {
+        this.keys = keys.toArray(String[]::new);
+        this.folded = folded.toArray(String[]::new);
+    }
+
+    /**
+     * Build the {@code MatchIndex} of key and property pairs, such as ids and properties of contents loaded from the
+     * database. A pair of which property is {@code null} is excluded.
+     *
+     * @param entries key and property pairs
+     * @return the {@code MatchIndex}
+     * @throws NullPointerException if {@code entries} is {@code null}, or if it contains {@code null} or a
+     * {@code null} key
+     * @since 3.0.0
+     */
+    public static MatchIndex of(Iterator<? extends Map.Entry<String, String>> entries) {
+        Objects.requireNonNull(entries);
+
+        List<String> keys = new ArrayList<>();
+        List<String> folded = new ArrayList<>();
+
+        while (entries.hasNext()) {
+            Map.Entry<String, String> e = entries.next();
+
+            if (e.getValue() != null) {
+                keys.add(Objects.requireNonNull(e.getKey()));
+                folded.add(FilteringPredicate.fold(e.getValue()));
+            }
+        }
+
+        return new MatchIndex(keys, folded);
+    }
+
+    /**
+     * Build the {@code MatchIndex} of a property of the contents. Contents are read one by one.
+     *
+     * @param <T> content type
+     * @param contents the {@code ContentMap}
+     * @param property function that gets the property to index from a content. It may return {@code null}.
+     * @return the {@code MatchIndex}
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 3.0.0
+     */
+    public static <T> MatchIndex of(ContentMap<T> contents, Function<? super T, String> property) {
+        Objects.requireNonNull(contents);
+        Objects.requireNonNull(property);
+
+        return of(contents.keySet().stream().map(k -> new AbstractMap.SimpleImmutableEntry<>(k,
+            property.apply(contents.get(k)))).iterator());
+    }
+
+    /**
+     * Build the {@code MatchIndex} of keys of the contents.
+     *
+     * @param contents the {@code ContentMap}
+     * @return the {@code MatchIndex}
+     * @throws NullPointerException if {@code contents} is {@code null}
+     * @since 3.0.0
+     */
+    public static MatchIndex ofKeys(ContentMap<?> contents) {
+        return of(contents.keySet().stream().map(k -> Map.entry(k, k)).iterator());
+    }
+
+    /**
+     * Get number of indexed keys.
+     *
+     * @return number of indexed keys
+     * @since 3.0.0
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Find keys of which property matches.
+     *
+     * @param operation the {@code LeafOperation}. It is {@code FORWARD_MATCH}, {@code BACKWARD_MATCH} or
+     * {@code PARTIAL_MATCH}.
+     * @param value value to find
+     * @return keys of which property matches, in the order they were indexed
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code operation} is not supported
+     * @since 3.0.0
+     */
+    public List<String> find(LeafOperation operation, String value) {
+        Objects.requireNonNull(operation);
+
+        String v = FilteringPredicate.fold(Objects.requireNonNull(value));
+
+        int[] ordinals = switch (operation) {
+            case FORWARD_MATCH ->
+                forward().range(v);
+            case BACKWARD_MATCH ->
+                backward().range(reverse(v));
+            case PARTIAL_MATCH ->
+                partial(v);
+            default ->
+                throw new IllegalArgumentException("Unsupported operation. " + operation);
+        };
+
+        Arrays.sort(ordinals);
+
+        return Collections.unmodifiableList(Arrays.asList(IntStream.of(ordinals).mapToObj(o -> keys[o])
+            .toArray(String[]::new)));
+    }
+
+    /**
+     * Returns a string representation.
+     *
+     * @return a string representation
+     * @since 3.0.0
+     */
+    @Override
+    public String toString() {
+        return "MatchIndex{size=" + keys.length + ", forward=" + (forward != null) + ", backward=" + (backward != null)
+            + ", partial=" + (trigrams != null) + "}";
+    }
+
+    private Sorted forward() {
+        Sorted s = forward;
+
+        if (s == null) {
+            synchronized (this) {
+                if ((s = forward) == null) {
+                    forward = s = new Sorted(folded);
+                }
+            }
+        }
+
+        return s;
+    }
+
+    private Sorted backward() {
+        Sorted s = backward;
+
+        if (s == null) {
+            synchronized (this) {
+                if ((s = backward) == null) {
+                    backward = s = new Sorted(Arrays.stream(folded).map(MatchIndex::reverse).toArray(String[]::new));
+                }
+            }
+        }
+
+        return s;
+    }
+
+    private Map<Long, int[]> trigrams() {
+        Map<Long, int[]> t = trigrams;
+
+        if (t == null) {
+            synchronized (this) {
+                if ((t = trigrams) == null) {
+                    trigrams = t = buildTrigrams();
+                }
+            }
+        }
+
+        return t;
+    }
+
+    private int[] partial(String v) {
+        if (v.length() < GRAM) {
+            return IntStream.range(0, folded.length).filter(o -> folded[o].contains(v)).toArray();
+        }
+
+        Map<Long, int[]> index = trigrams();
+
+        List<int[]> postings = new ArrayList<>();
+
+        for (int i = 0; i + GRAM <= v.length(); i++) {
+            postings.add(index.getOrDefault(trigram(v, i), NO_POSTINGS));
+        }
+
+        // Note: Intersect from the shortest, so that candidates shrink fast.
+        postings.sort(Comparator.comparingInt(p -> p.length));
+
+        int[] candidates = postings.getFirst();
+
+        for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postings.get(i));
+        }
+
+        // Note: Trigrams can be found in a different order, so each candidate is verified.
+        return IntStream.of(candidates).filter(o -> folded[o].contains(v)).toArray();
+    }
+
+    private Map<Long, int[]> buildTrigrams() {
+        Map<Long, Postings> building = new HashMap<>();
+
+        for (int o = 0; o < folded.length; o++) {
+            String s = folded[o];
+
+            for (int i = 0; i + GRAM <= s.length(); i++) {
+                building.computeIfAbsent(trigram(s, i), k -> new Postings()).add(o);
+            }
+        }
+
+        Map<Long, int[]> built = HashMap.newHashMap(building.size());
+
+        building.forEach((k, p) -> built.put(k, Arrays.copyOf(p.ordinals, p.size)));
+
+        return Collections.unmodifiableMap(built);
+    }
+
+    private static long trigram(String s, int i) {
+        return (long) s.charAt(i) << 32 | (long) s.charAt(i + 1) << 16 | s.charAt(i + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int n = 0;
+
+        for (int i = 0, j = 0; i < a.length && j < b.length;) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String reverse(String s) {
+        return new StringBuilder(s).reverse().toString();
+    }
+
+    /**
+     * Ordinals sorted by their strings.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Sorted {
+
+        private final String[] strings;
+        private final int[] ordinals;
+
+        Sorted(String[] byOrdinal) {
+            this.ordinals = IntStream.range(0, byOrdinal.length).boxed()
+                .sorted(Comparator.comparing(o -> byOrdinal[o])).mapToInt(Integer::intValue).toArray();
+            this.strings = IntStream.of(ordinals).mapToObj(o -> byOrdinal[o]).toArray(String[]::new);
+        }
+
+        int[] range(String prefix) {
+            // Note: Strings starting with the prefix are contiguous from the first one not less than the prefix.
+            int from = 0;
+
+            for (int hi = strings.length; from < hi;) {
+                int mid = (from + hi) >>> 1;
+
+                if (strings[mid].compareTo(prefix) < 0) {
+                    from = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+
+            int to = from;
+
+            while (to < strings.length && strings[to].startsWith(prefix)) {
+                to++;
+            }
+
+            return Arrays.copyOfRange(ordinals, from, to);
+        }
+    }
+
+    /**
+     * Growing posting list. An ordinal is added once even if the trigram appears many times.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    private static class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+
+            ordinals[size++] = ordinal;
+        }
+    }
+}
@@ -26,6 +26,7 @@
 package jp.mydns.projectk.safi.value;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.groups.Default;
@@ -133,6 +134,7 @@ public interface NodeConditionValue extends FilteringConditionValue {
             return new Builder.Bean(this);
         }
 
+        @JsonbTypeSerializer(FilteringConditionValue.Serializer.class)
         protected static class Bean extends AbstractBuilder.AbstractBean implements NodeConditionValue {
 
             private final List<FilteringConditionValue> children;
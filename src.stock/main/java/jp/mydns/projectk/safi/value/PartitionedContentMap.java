@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link ContentMap} split into segments by hash of content id. Each segment is an independent {@code ContentMap}
+ * with its own working file and index, so segments are built concurrently and can be processed in parallel through
+ * {@link #segments()}. All contents with the same id, compared case-insensitively, are stored in the same segment, so
+ * duplicates are detected same as a single {@code ContentMap}.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * </ul>
+ *
+ * @param <T> content type
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+public class PartitionedContentMap<T> implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final List<ContentMap<T>> segments;
+
+    /**
+     * Constructor. Contents are read from {@code contents} by the current thread and routed to segments, and each
+     * segment is built by its own thread created by {@link ContentMap.Builder#withThreadFactory}. Each segment is built
+     * as {@code builder} is configured.
+     *
+     * @param contents id and value of content
+     * @param tmpDir where to save temporary files
+     * @param partitions number of segments
+     * @param builder the {@code ContentMap.Builder} for each segment
+     * @throws IOException if occurs I/O error
+     * @throws NullPointerException if any argument is {@code null} or if exists a {@code null} in {@code contents}
+     * @throws IllegalArgumentException if {@code partitions} is less than 1
+     * @since 3.0.0
+     */
+    public PartitionedContentMap(Iterator<Entry<String, T>> contents, Path tmpDir, int partitions,
+        ContentMap.Builder<T> builder) throws IOException {
+
+        Objects.requireNonNull(contents);
+        Objects.requireNonNull(tmpDir);
+        Objects.requireNonNull(builder);
+
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must be positive.");
+        }
+
+        List<SegmentTask<T>> tasks = new ArrayList<>(partitions);
+
+        for (int i = 0; i < partitions; i++) {
+            var task = new SegmentTask<T>(tmpDir, builder);
+            builder.getThreadFactory().newThread(task.future).start();
+            tasks.add(task);
+        }
+
+        try {
+            try {
+                while (contents.hasNext()) {
+                    Entry<String, T> e = contents.next();
+                    tasks.get(partition(Objects.requireNonNull(e.getKey()), partitions)).put(e);
+                }
+            } finally {
+                for (SegmentTask<T> task : tasks) {
+                    task.end();
+                }
+            }
+
+            List<ContentMap<T>> built = new ArrayList<>(partitions);
+
+            for (SegmentTask<T> task : tasks) {
+                built.add(task.get());
+            }
+
+            this.segments = Collections.unmodifiableList(built);
+        } catch (IOException | RuntimeException | Error ex) {
+            for (SegmentTask<T> task : tasks) {
+                task.discard(ex);
+            }
+
+            throw ex;
+        }
+    }
+
+    private static int partition(String key, int partitions) {
+        int h = ContentMap.foldedHash(key) * 0x9E3779B9;
+
+        return Math.floorMod(h ^ h >>> 16, partitions);
+    }
+
+    private ContentMap<T> segment(String key) {
+        return segments.get(partition(Objects.requireNonNull(key), segments.size()));
+    }
+
+    /**
+     * Get all segments. Segments are independent of each other, so they can be processed in parallel.
+     *
+     * @return all segments
+     * @since 3.0.0
+     */
+    public List<ContentMap<T>> segments() {
+        return segments;
+    }
+
+    /**
+     * Returns {@code true} if no content storing.
+     *
+     * @return {@code true} if no content storing
+     * @since 3.0.0
+     */
+    public boolean isEmpty() {
+        return segments.stream().allMatch(ContentMap::isEmpty);
+    }
+
+    /**
+     * Returns storing number of content.
+     *
+     * @return storing number of content
+     * @since 3.0.0
+     */
+    public int size() {
+        return segments.stream().mapToInt(ContentMap::size).sum();
+    }
+
+    /**
+     * Returns {@code true} if exists a content associated with {@code key}.
+     *
+     * @param key content id
+     * @return {@code true} if exists a content associated with {@code key}
+     * @throws NullPointerException if {@code key} is {@code null}
+     * @since 3.0.0
+     */
+    public boolean containsKey(String key) {
+        return segment(key).containsKey(key);
+    }
+
+    /**
+     * Returns all content ids. The ids are ordered by {@link String#CASE_INSENSITIVE_ORDER}, by merging the ids of
+     * all segments while iterating.
+     *
+     * @return all content ids
+     * @since 3.0.0
+     */
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return merge(segments.stream().map(s -> s.keySet().iterator()).toList(), Function.identity());
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String k && containsKey(k);
+            }
+
+            @Override
+            public int size() {
+                return PartitionedContentMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Get all values stored in this. The values are in order of segment, not in order of id.
+     *
+     * @return all values stored in this
+     * @since 3.0.0
+     */
+    public Stream<T> stream() {
+        return segments.stream().flatMap(ContentMap::stream);
+    }
+
+    /**
+     * Get all values stored in this as a parallel stream. Each segment is read by a separate worker.
+     *
+     * @return all values stored in this
+     * @since 3.0.0
+     */
+    public Stream<T> parallelStream() {
+        return segments.parallelStream().flatMap(ContentMap::stream);
+    }
+
+    /**
+     * Get a value associated with {@code key}.
+     *
+     * @param key content id
+     * @return a value associated with {@code key}. Returns {@code null} if not exists.
+     * @throws NullPointerException if {@code key} is {@code null}
+     * @since 3.0.0
+     */
+    public T get(String key) {
+        return segment(key).get(key);
+    }
+
+    /**
+     * Get a digest of the content associated with {@code key}.
+     *
+     * @param key content id
+     * @return a digest of the content associated with {@code key}. Returns {@code null} if not exists.
+     * @throws NullPointerException if {@code key} is {@code null}
+     * @throws IllegalStateException if this was built without {@link ContentMap.Builder#withDigest(Function)}
+     * @see ContentMap#digest(String)
+     * @since 3.0.0
+     */
+    public String digest(String key) {
+        return segment(key).digest(key);
+    }
+
+    /**
+     * Get all ids and digests stored in this. The ids are ordered by {@link String#CASE_INSENSITIVE_ORDER}, by merging
+     * the digests of all segments while iterating.
+     *
+     * @return all ids and digests stored in this
+     * @throws IllegalStateException if this was built without {@link ContentMap.Builder#withDigest(Function)}
+     * @see ContentMap#digests()
+     * @since 3.0.0
+     */
+    public Stream<Entry<String, String>> digests() {
+        List<Stream<Entry<String, String>>> digests = segments.stream().map(ContentMap::digests).toList();
+        Iterator<Entry<String, String>> merged = merge(digests.stream().map(Stream::iterator).toList(),
+            Entry::getKey);
+
+        return StreamSupport.stream(Spliterators.spliterator(merged, size(), Spliterator.ORDERED
+            | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Indicate that exists a duplicate value.
+     *
+     * @return {@code true} if exists a duplicate, otherwise {@code false}.
+     * @since 3.0.0
+     */
+    public boolean hasDuplicates() {
+        return segments.stream().anyMatch(ContentMap::hasDuplicates);
+    }
+
+    /**
+     * Get duplicate values.
+     *
+     * @return duplicate values
+     * @since 3.0.0
+     */
+    public Stream<T> duplicates() {
+        return segments.stream().flatMap(ContentMap::duplicates);
+    }
+
+    /**
+     * Delete the temporary files used by this class.
+     *
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (ContentMap<T> segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Note: K-way merge of iterators each ordered by String.CASE_INSENSITIVE_ORDER of its key.
+    private static <E> Iterator<E> merge(List<Iterator<E>> sources, Function<E, String> key) {
+        Comparator<MergeHead<E>> order = Comparator.comparing(h -> key.apply(h.current), String.CASE_INSENSITIVE_ORDER);
+        var heads = new PriorityQueue<MergeHead<E>>(Math.max(1, sources.size()), order);
+
+        for (Iterator<E> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new MergeHead<>(source));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                MergeHead<E> head = heads.poll();
+
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+
+                E e = head.current;
+
+                if (head.source.hasNext()) {
+                    head.current = head.source.next();
+                    heads.add(head);
+                }
+
+                return e;
+            }
+        };
+    }
+
+    private static class MergeHead<E> {
+
+        private final Iterator<E> source;
+        private E current;
+
+        private MergeHead(Iterator<E> source) {
+            this.source = source;
+            this.current = source.next();
+        }
+    }
+
+    // Note: Builds one segment from the contents queued by the routing thread.
+    private static class SegmentTask<T> {
+
+        private static final Entry<String, ?> END_OF_CONTENTS = new AbstractMap.SimpleImmutableEntry<>("", null);
+
+        private final BlockingQueue<Entry<String, T>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final FutureTask<ContentMap<T>> future;
+        private boolean ended;
+
+        private SegmentTask(Path tmpDir, ContentMap.Builder<T> builder) {
+            this.future = new FutureTask<>(() -> builder.build(new QueueIterator(), tmpDir));
+        }
+
+        private void put(Entry<String, T> e) throws IOException {
+            try {
+                // Note: Stop waiting if the segment failed, because it no longer takes contents.
+                while (!queue.offer(e, 100, TimeUnit.MILLISECONDS)) {
+                    if (future.isDone()) {
+                        get();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while routing contents.");
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void end() {
+            try {
+                if (!future.isDone()) {
+                    put((Entry<String, T>) END_OF_CONTENTS);
+                }
+
+                ended = true;
+            } catch (IOException | RuntimeException ex) {
+                // Note: A failure of the segment is thrown by get().
+            }
+        }
+
+        private ContentMap<T> get() throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while building segments.");
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException cause) {
+                    throw cause;
+                } else if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                } else if (ex.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        private void discard(Throwable failure) {
+            if (!ended) {
+                // Note: The segment may wait for contents forever.
+                future.cancel(true);
+            }
+
+            try {
+                if (!future.isCancelled()) {
+                    future.get().close();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | IOException ex) {
+                if (ex.getCause() != failure) {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+
+        private class QueueIterator implements Iterator<Entry<String, T>> {
+
+            private Entry<String, T> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while taking contents.", ex);
+                    }
+                }
+
+                return next != END_OF_CONTENTS;
+            }
+
+            @Override
+            public Entry<String, T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Entry<String, T> e = next;
+                next = null;
+
+                return e;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import jakarta.json.bind.annotation.JsonbTypeDeserializer;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
+import jakarta.json.bind.serializer.DeserializationContext;
+import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.bind.serializer.JsonbSerializer;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * Serializable JSON value. It is wrapper of the {@link JsonValue}.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is immutable and thread-safe.</li>
+ * <li>This class is serializable.</li>
+ * </ul>
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+@JsonbTypeDeserializer(SJson.Deserializer.class)
+public interface SJson extends Serializable {
+
+    /**
+     * Construct with {@code JsonValue}.
+     *
+     * @param value an any {@code JsonValue}
+     * @return the {@code SJson} wrapped {@code value}
+     * @throws NullPointerException if {@code value} is {@code null}
+     * @since 3.0.0
+     */
+    static SJson of(JsonValue value) {
+        return new Deserializer.Impl(Objects.requireNonNull(value));
+    }
+
+    /**
+     * Construct with string representation of JSON. It is parsed at the first {@link #unwrap()}, and
+     * {@link #toString()} returns {@code json} as is without parsing. It is suitable for values that may never be
+     * referenced, such as values of the database columns.
+     *
+     * @param json string representation of an any JSON
+     * @return the {@code SJson} wrapped {@code json}
+     * @throws NullPointerException if {@code json} is {@code null}
+     * @since 3.0.0
+     */
+    static SJson lazyOf(String json) {
+        return new Deserializer.LazyImpl(Objects.requireNonNull(json));
+    }
+
+    /**
+     * Get unwrapped value.
+     *
+     * @return unwrapped value
+     * @throws JsonParsingException if this value constructed by {@link #lazyOf(String)} and it is malformed as JSON
+     * @since 3.0.0
+     */
+    JsonValue unwrap();
+
+    /**
+     * Returns {@code true} if this value is constructed by {@link #lazyOf(String)}. Then {@link #toString()} returns
+     * the string representation as is, otherwise it serializes the value.
+     *
+     * @return {@code true} if this value is constructed by {@link #lazyOf(String)}
+     * @since 3.0.0
+     */
+    default boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * JSON deserializer for {@code SJson}.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Deserializer implements JsonbDeserializer<SJson> {
+
+        /**
+         * Constructor. Used only by Jakarta JSON Binding.
+         *
+         * @hidden
+         */
+        @SuppressWarnings("unused")
+        Deserializer() {
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public SJson deserialize(JsonParser jp, DeserializationContext dc, Type type) {
+            return new Impl(dc.deserialize(JsonValue.class, jp));
+        }
+
+        @JsonbTypeSerializer(SJson.Serializer.class)
+        private static class Impl implements SJson {
+
+            @java.io.Serial
+            private static final long serialVersionUID = 6337206561334398852L;
+
+            private transient JsonValue value; // Note: Mutable definition for deserialization purposes, but immutable.
+
+            private Impl(JsonValue value) {
+                this.value = Objects.requireNonNull(value);
+            }
+
+            @Override
+            public JsonValue unwrap() {
+                return value;
+            }
+
+            @Override
+            public int hashCode() {
+                return value.hashCode();
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof SJson o && value.equals(o.unwrap());
+            }
+
+            @Override
+            public String toString() {
+                return value.toString();
+            }
+
+            @java.io.Serial
+            private void writeObject(ObjectOutputStream stream) throws IOException {
+                stream.defaultWriteObject();
+                stream.writeUTF(value.toString());
+            }
+
+            @java.io.Serial
+            private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+                stream.defaultReadObject();
+
+                try (var r = Json.createReader(new StringReader(stream.readUTF()))) {
+                    value = r.readValue();
+                }
+            }
+        }
+
+        @JsonbTypeSerializer(SJson.Serializer.class)
+        private static class LazyImpl implements SJson {
+
+            @java.io.Serial
+            private static final long serialVersionUID = -2894186620330871046L;
+
+            private transient String json; // Note: Mutable definition for deserialization purposes, but immutable.
+            private transient volatile JsonValue value;
+
+            private LazyImpl(String json) {
+                this.json = Objects.requireNonNull(json);
+            }
+
+            @Override
+            public JsonValue unwrap() {
+                JsonValue v = value;
+
+                if (v == null) {
+                    // Note: Parsing may run more than once under contention, but the results are equal.
+                    try (var r = Json.createReader(new StringReader(json))) {
+                        value = v = r.readValue();
+                    }
+                }
+
+                return v;
+            }
+
+            @Override
+            public boolean isLazy() {
+                return true;
+            }
+
+            @Override
+            public int hashCode() {
+                return unwrap().hashCode();
+            }
+
+            @Override
+            public boolean equals(Object other) {
+                // Note: Same text is same value without parsing.
+                return this == other || other instanceof LazyImpl o && json.equals(o.json)
+                    || other instanceof SJson o && unwrap().equals(o.unwrap());
+            }
+
+            @Override
+            public String toString() {
+                return json;
+            }
+
+            @java.io.Serial
+            private void writeObject(ObjectOutputStream stream) throws IOException {
+                stream.defaultWriteObject();
+                stream.writeUTF(json);
+            }
+
+            @java.io.Serial
+            private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+                stream.defaultReadObject();
+                json = stream.readUTF();
+            }
+        }
+    }
+
+    /**
+     * JSON serializer for {@code SJson}.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Serializer implements JsonbSerializer<SJson> {
+
+        /**
+         * Constructor. Used only by Jakarta JSON Binding.
+         *
+         * @hidden
+         */
+        @SuppressWarnings("unused")
+        Serializer() {
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public void serialize(SJson obj, JsonGenerator generator, SerializationContext ctx) {
+            generator.write(obj.unwrap());
+        }
+    }
+}
@@ -27,15 +27,26 @@ package jp.mydns.projectk.safi.value;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.json.bind.annotation.JsonbTypeDeserializer;
+import jakarta.json.bind.annotation.JsonbTypeSerializer;
 import jakarta.json.bind.serializer.DeserializationContext;
 import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.bind.serializer.JsonbSerializer;
+import jakarta.json.bind.serializer.SerializationContext;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.groups.Default;
 import java.lang.reflect.Type;
 import java.util.Objects;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readNamed;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.readString;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.skipValue;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeNamed;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeObject;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.writeString;
 
 /**
  * Definition for <i>Job</i> scheduling. With this definition, the schedule that can be created is limited to the period
@@ -202,6 +213,7 @@ public interface SchedefValue extends NamedValue {
             return new Builder.Bean(this);
         }
 
+        @JsonbTypeSerializer(SchedefValue.Serializer.class)
         protected static class Bean extends AbstractBuilder.AbstractBean implements SchedefValue {
 
             private String id;
@@ -320,7 +332,37 @@ public interface SchedefValue extends NamedValue {
     }
 
     /**
-     * JSON deserializer for {@code SchedefValue}.
+     * JSON serializer for {@code SchedefValue} that is built by builder. It writes properties directly to the
+     * generator, in the same order as the reflective binding.
+     *
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    class Serializer implements JsonbSerializer<SchedefValue> {
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 3.0.0
+         */
+        @Override
+        public void serialize(SchedefValue schedef, JsonGenerator gen, SerializationContext ctx) {
+            gen.writeStartObject();
+
+            writeNamed(schedef, gen, ctx);
+            writeString(gen, "id", schedef.getId());
+            writeString(gen, "jobdefId", schedef.getJobdefId());
+            writeString(gen, "priority", schedef.getPriority());
+            writeObject(gen, "trigger", schedef.getTrigger(), ctx);
+
+            gen.writeEnd();
+        }
+    }
+
+    /**
+     * JSON deserializer for {@code SchedefValue}. Properties are read from the parser by hand, without reflective
+     * binding, straight into the builder.
      *
      * @author riru
      * @version 3.0.0
@@ -335,7 +377,35 @@ public interface SchedefValue extends NamedValue {
          */
         @Override
         public SchedefValue deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
-            return ctx.deserialize(Builder.Bean.class, parser);
+            if (!parser.hasNext()) {
+                return null;    // Note: The parser is scoped to a null value.
+            }
+
+            Builder builder = new Builder();
+
+            // Note: The parser is at the start of object.
+            for (Event e = parser.next(); e != Event.END_OBJECT; e = parser.next()) {
+                String name = parser.getString();
+                Event value = parser.next();
+
+                switch (name) {
+                    case "id" ->
+                        builder.withId(readString(parser, value, ctx));
+                    case "jobdefId" ->
+                        builder.withJobdefId(readString(parser, value, ctx));
+                    case "priority" ->
+                        builder.withPriority(readString(parser, value, ctx));
+                    case "trigger" ->
+                        builder.withTrigger(ctx.deserialize(ScheduleTriggerValue.class, parser));
+                    default -> {
+                        if (!readNamed(builder, name, value, parser, ctx)) {
+                            skipValue(parser, value);
+                        }
+                    }
+                }
+            }
+
+            return builder.unsafeBuild();
         }
     }
 }
@@ -31,6 +31,7 @@ import jakarta.json.bind.annotation.JsonbTypeDeserializer;
 import jakarta.json.bind.serializer.DeserializationContext;
 import jakarta.json.bind.serializer.JsonbDeserializer;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.groups.Default;
 import java.lang.reflect.Type;
@@ -38,12 +39,15 @@ import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.Month;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
 import java.util.SequencedSet;
 import java.util.Objects;
 import jp.mydns.projectk.safi.constant.ScheduleTriggerKing;
 import jp.mydns.projectk.safi.util.CollectionUtils;
 import jp.mydns.projectk.safi.validator.TimeAccuracy;
 import jp.mydns.projectk.safi.validator.TimeRange;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.requireEvent;
+import static jp.mydns.projectk.safi.value.JsonbCodecs.skipValue;
 import jp.mydns.projectk.safi.value.adapter.SequencedSetAdapter.SequencedDayOfWeekSetAdapter;
 import jp.mydns.projectk.safi.value.adapter.SequencedSetAdapter.SequencedIntegerSetAdapter;
 import jp.mydns.projectk.safi.value.adapter.SequencedSetAdapter.SequencedMonthSetAdapter;
@@ -228,7 +232,8 @@ public interface ScheduleTriggerValue extends ValueTemplate {
     }
 
     /**
-     * JSON deserializer for {@code ScheduleTriggerValue}.
+     * JSON deserializer for {@code ScheduleTriggerValue}. Properties are read from the parser by hand, without
+     * reflective binding, and then built by the builder of the kind.
      *
      * @author riru
      * @version 3.0.0
@@ -243,7 +248,11 @@ public interface ScheduleTriggerValue extends ValueTemplate {
          */
         @Override
         public ScheduleTriggerValue deserialize(JsonParser parser, DeserializationContext ctx, Type rtType) {
-            Bean trigger = ctx.deserialize(Bean.class, parser);
+            if (!parser.hasNext()) {
+                return null;    // Note: The parser is scoped to a null value.
+            }
+
+            Bean trigger = readBean(parser, ctx);
 
             return switch (trigger.getKind()) {
                 case null ->
@@ -259,6 +268,55 @@ public interface ScheduleTriggerValue extends ValueTemplate {
             };
         }
 
+        // Note: The parser is at the start of object.
+        private static Bean readBean(JsonParser parser, DeserializationContext ctx) {
+            Bean bean = new Bean();
+
+            for (Event e = parser.next(); e != Event.END_OBJECT; e = parser.next()) {
+                String name = parser.getString();
+                Event value = parser.next();
+
+                switch (name) {
+                    case "kind" ->
+                        bean.setKind(ctx.deserialize(ScheduleTriggerKing.class, parser));
+                    case "anchorTime" ->
+                        bean.setAnchorTime(ctx.deserialize(OffsetDateTime.class, parser));
+                    case "duration" ->
+                        bean.setDuration(ctx.deserialize(Duration.class, parser));
+                    case "months" ->
+                        bean.setMonths(readSet(parser, value, ctx, Month.class));
+                    case "weeks" ->
+                        bean.setWeeks(readSet(parser, value, ctx, Integer.class));
+                    case "weekdays" ->
+                        bean.setWeekdays(readSet(parser, value, ctx, DayOfWeek.class));
+                    case "days" ->
+                        bean.setDays(readSet(parser, value, ctx, Integer.class));
+                    default ->
+                        skipValue(parser, value);
+                }
+            }
+
+            return bean;
+        }
+
+        private static <T> SequencedSet<T> readSet(JsonParser parser, Event value, DeserializationContext ctx,
+            Class<T> type) {
+
+            if (value == Event.VALUE_NULL) {
+                return null;
+            }
+
+            requireEvent(Event.START_ARRAY, value);
+
+            SequencedSet<T> values = new LinkedHashSet<>();
+
+            while (parser.next() != Event.END_ARRAY) {
+                values.add(ctx.deserialize(type, parser));
+            }
+
+            return values;
+        }
+
         protected static class Bean implements DaysTriggerValue, WeekdaysTriggerValue, OnceTriggerValue,
             CancelTriggerValue {
 
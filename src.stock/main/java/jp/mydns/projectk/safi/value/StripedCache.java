@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded cache striped by key to reduce lock contention. Each stripe is a least recently used map, and the least
+ * recently used entry of the stripe is the victim when a new entry is put into the full stripe. Whether the new entry
+ * is admitted in place of the victim is decided by the {@link Admission} of the stripe.
+ *
+ * <p>
+ * Implementation requirements.
+ * <ul>
+ * <li>This class is thread-safe.</li>
+ * <li>The {@code Admission} is called under the lock of its stripe.</li>
+ * </ul>
+ *
+ * @param <K> key type. It must implement {@link Object#equals(Object)} and {@link Object#hashCode()} by content.
+ * @param <V> value type
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+final class StripedCache<K, V> {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe<K, V>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Construct with maximum size. The new entry is always admitted, so it is a plain least recently used cache.
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if {@code maximumSize} is less than 1
+     * @since 3.0.0
+     */
+    StripedCache(int maximumSize) {
+        this(maximumSize, c -> (candidate, victim) -> true);
+    }
+
+    /**
+     * Construct with maximum size and the admission policy.
+     *
+     * @param maximumSize maximum number of entries
+     * @param admissions function that makes the {@code Admission} of a stripe from the capacity of the stripe
+     * @throws NullPointerException if {@code admissions} is {@code null} or if it returns {@code null}
+     * @throws IllegalArgumentException if {@code maximumSize} is less than 1
+     * @since 3.0.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StripedCache(int maximumSize, IntFunction<? extends Admission<? super K>> admissions) {
+        Objects.requireNonNull(admissions);
+
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+
+        int count = Math.min(MAX_STRIPES, Integer.highestOneBit(maximumSize));
+        int capacity = maximumSize / count;
+
+        stripes = new Stripe[count];
+
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(capacity, Objects.requireNonNull(admissions.apply(capacity)));
+        }
+    }
+
+    /**
+     * Get the cached value. The access is recorded to the {@code Admission} whether or not it is cached.
+     *
+     * @param key the key
+     * @return the cached value. Returns {@code null} if not cached.
+     * @throws NullPointerException if {@code key} is {@code null}
+     * @since 3.0.0
+     */
+    V get(K key) {
+        V value = stripe(Objects.requireNonNull(key)).get(key);
+
+        (value != null ? hits : misses).increment();
+
+        return value;
+    }
+
+    /**
+     * Cache the value if no value is cached for the key. If the stripe is full and the {@code Admission} rejects the
+     * key, the value is not cached.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the value already cached for the key, otherwise {@code value}
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 3.0.0
+     */
+    V putIfAbsent(K key, V value) {
+        return stripe(Objects.requireNonNull(key)).putIfAbsent(key, Objects.requireNonNull(value));
+    }
+
+    /**
+     * Get number of cached entries.
+     *
+     * @return number of cached entries
+     * @since 3.0.0
+     */
+    int size() {
+        int size = 0;
+
+        for (Stripe<K, V> s : stripes) {
+            size += s.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Get number of times that {@link #get(Object)} found a value.
+     *
+     * @return number of hits
+     * @since 3.0.0
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get number of times that {@link #get(Object)} did not find a value.
+     *
+     * @return number of misses
+     * @since 3.0.0
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    private Stripe<K, V> stripe(K key) {
+        int h = key.hashCode() * 0x9E3779B9;
+
+        return stripes[(h >>> 16) & (stripes.length - 1)];
+    }
+
+    /**
+     * Admission policy of a stripe.
+     *
+     * @param <K> key type
+     * @author riru
+     * @version 3.0.0
+     * @since 3.0.0
+     */
+    @FunctionalInterface
+    interface Admission<K> {
+
+        /**
+         * Record an access to the key. Default is nothing to do.
+         *
+         * @param key the key
+         * @since 3.0.0
+         */
+        default void record(K key) {
+        }
+
+        /**
+         * Judge whether the new entry is admitted in place of the victim.
+         *
+         * @param candidate key of the new entry
+         * @param victim key of the least recently used entry
+         * @return {@code true} if admitted
+         * @since 3.0.0
+         */
+        boolean admit(K candidate, K victim);
+    }
+
+    private static class Stripe<K, V> {
+
+        private final int capacity;
+        private final LinkedHashMap<K, V> values;
+        private final Admission<? super K> admission;
+
+        private Stripe(int capacity, Admission<? super K> admission) {
+            this.capacity = capacity;
+            this.values = new LinkedHashMap<>(16, 0.75f, true);
+            this.admission = admission;
+        }
+
+        private synchronized V get(K key) {
+            admission.record(key);
+
+            return values.get(key);
+        }
+
+        private synchronized V putIfAbsent(K key, V value) {
+            V current = values.get(key);
+
+            if (current != null) {
+                return current;
+            }
+
+            if (values.size() >= capacity) {
+                K victim = values.keySet().iterator().next();
+
+                if (!admission.admit(key, victim)) {
+                    return value;
+                }
+
+                values.remove(victim);
+            }
+
+            values.put(key, value);
+
+            return value;
+        }
+
+        private synchronized int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.dao;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jp.mydns.projectk.safi.test.junit.JsonbParameterResolver;
+import jp.mydns.projectk.safi.value.FilteringConditionValue;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test of class {@code FilteringCriteria}. The {@code CriteriaBuilder} is a stub that renders each predicate as the
+ * text of its construction.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+@ExtendWith(JsonbParameterResolver.class)
+class FilteringCriteriaTest {
+
+    private static final CriteriaBuilder CB = render(CriteriaBuilder.class, null);
+    private static final Expression<?> PROPS = render(Expression.class, "p");
+
+    /**
+     * Test of toPredicate method if leaf.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfLeaf(Jsonb jsonb) {
+        assertThat(translate(jsonb, leaf("EQUAL", "a", "Ab%_"))).isEqualTo(like("a", "ab\\%\\_"));
+        assertThat(translate(jsonb, leaf("FORWARD_MATCH", "a", "x"))).isEqualTo(like("a", "x%"));
+        assertThat(translate(jsonb, leaf("BACKWARD_MATCH", "a", "x"))).isEqualTo(like("a", "%x"));
+        assertThat(translate(jsonb, leaf("PARTIAL_MATCH", "a\"b", "x"))).isEqualTo(like("a\\\"b", "%x%"));
+        assertThat(translate(jsonb, leaf("IS_NULL", "a", null))).isEqualTo(isNull("a"));
+    }
+
+    /**
+     * Test of toPredicate method if leaf is not translatable. It matches any row.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfNotTranslatable(Jsonb jsonb) {
+        assertThat(translate(jsonb, leaf("EQUAL", "a", "1.5"))).isEqualTo("conjunction()");
+        assertThat(translate(jsonb, leaf("EQUAL", "a", "ſ"))).isEqualTo("conjunction()");
+        assertThat(translate(jsonb, leaf("GRATER_THAN", "a", "x"))).isEqualTo("conjunction()");
+        assertThat(translate(jsonb, leaf("LESS_THAN", "a", "x"))).isEqualTo("conjunction()");
+    }
+
+    /**
+     * Test of toPredicate method if NOT_OR. Its children are negated and joined by AND, and a negated matching is
+     * dropped because the negation of a superset is not a superset.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfNotOr(Jsonb jsonb) {
+        var notOr = node("NOT_OR", leaf("IS_NULL", "a", null), leaf("EQUAL", "b", "x"), leaf("IS_NULL", "c", null));
+
+        assertThat(translate(jsonb, notOr)).isEqualTo("and(not(%s), not(%s))".formatted(isNull("a"), isNull("c")));
+    }
+
+    /**
+     * Test of toPredicate method if negated twice. The negations cancel each other out.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfDoubleNegation(Jsonb jsonb) {
+        var condition = node("NOT_OR", node("NOT_OR", leaf("EQUAL", "a", "x"), leaf("IS_NULL", "b", null)));
+
+        assertThat(translate(jsonb, condition)).isEqualTo("and(or(%s, %s))".formatted(like("a", "x"), isNull("b")));
+    }
+
+    /**
+     * Test of toPredicate method if negated AND. It is an OR of negated children by De Morgan's laws, so a child that
+     * can not be translated makes it match any row.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfNegatedAnd(Jsonb jsonb) {
+        var translatable = node("NOT_OR", node("AND", leaf("IS_NULL", "a", null), leaf("IS_NULL", "b", null)));
+        var untranslatable = node("NOT_OR", node("AND", leaf("IS_NULL", "a", null), leaf("EQUAL", "b", "x")));
+
+        assertThat(translate(jsonb, translatable))
+            .isEqualTo("and(or(not(%s), not(%s)))".formatted(isNull("a"), isNull("b")));
+        assertThat(translate(jsonb, untranslatable)).isEqualTo("conjunction()");
+    }
+
+    /**
+     * Test of toPredicate method if a child of OR can not be translated. It makes the OR match any row, but does not
+     * affect an enclosing AND.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToPredicateIfUntranslatableUnderOr(Jsonb jsonb) {
+        var or = node("OR", leaf("EQUAL", "a", "x"), leaf("GRATER_THAN", "b", "x"));
+        var and = node("AND", or, leaf("IS_NULL", "c", null));
+
+        assertThat(translate(jsonb, or)).isEqualTo("conjunction()");
+        assertThat(translate(jsonb, and)).isEqualTo("and(%s)".formatted(isNull("c")));
+        assertThat(translate(jsonb, node("OR", leaf("EQUAL", "a", "x"), leaf("IS_NULL", "b", null))))
+            .isEqualTo("or(%s, %s)".formatted(like("a", "x"), isNull("b")));
+    }
+
+    private static String translate(Jsonb jsonb, String condition) {
+        return FilteringCriteria.toPredicate(CB, PROPS, jsonb.fromJson(condition, FilteringConditionValue.class))
+            .toString();
+    }
+
+    private static String leaf(String operation, String name, String value) {
+        return "{\"operation\": \"%s\", \"name\": \"%s\"%s}".formatted(operation, name.replace("\"", "\\\""),
+            value == null ? "" : ", \"value\": \"" + value + "\"");
+    }
+
+    private static String node(String operation, String... children) {
+        return "{\"operation\": \"%s\", \"children\": [%s]}".formatted(operation, String.join(", ", children));
+    }
+
+    private static String extract(String name) {
+        return "function(JSON_EXTRACT, p, literal($.\"" + name + "\"))";
+    }
+
+    private static String type(String name) {
+        return "function(JSON_TYPE, " + extract(name) + ")";
+    }
+
+    private static String isNull(String name) {
+        return "or(isNull(%s), equal(%s, NULL))".formatted(extract(name), type(name));
+    }
+
+    private static String like(String name, String pattern) {
+        // Note: Characters out of ASCII that are folded into ASCII letters in memory.
+        String folded = "function(JSON_UNQUOTE, " + extract(name) + ")";
+
+        for (String[] pair : new String[][]{{"İ", "i"}, {"ı", "i"}, {"ſ", "s"}, {"K", "k"}}) {
+            folded = "function(REPLACE, %s, literal(%s), literal(%s))".formatted(folded, pair[0], pair[1]);
+        }
+
+        return "and(isNotNull(%s), not(%s.in(NULL, OBJECT, ARRAY)), like(lower(%s), %s, \\))"
+            .formatted(extract(name), type(name), folded, pattern);
+    }
+
+    // Note: Each method call returns a stub of its return type, which renders the call as "receiver.name(args)".
+    private static <T> T render(Class<T> type, String text) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("toString")) {
+                return text;
+            }
+
+            String call = (text == null ? "" : text + ".") + method.getName() + "(" + Stream.of(args == null
+                ? new Object[0] : args).flatMap(FilteringCriteriaTest::flatten).collect(Collectors.joining(", ")) + ")";
+
+            return render(method.getReturnType(), call);
+        }));
+    }
+
+    private static Stream<String> flatten(Object arg) {
+        if (arg instanceof Object[] array) {
+            return Arrays.stream(array).flatMap(FilteringCriteriaTest::flatten);
+        }
+
+        // Note: Result types of expressions are not rendered.
+        return arg instanceof Class ? Stream.empty() : Stream.of(String.valueOf(arg));
+    }
+}
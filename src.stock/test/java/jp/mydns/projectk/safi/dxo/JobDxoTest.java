@@ -25,6 +25,7 @@
  */
 package jp.mydns.projectk.safi.dxo;
 
+import jakarta.json.Json;
 import jakarta.json.JsonValue;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -52,6 +53,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
@@ -309,4 +312,65 @@ void testToValue(@Mock JsonService jsonSvc) {
         .satisfies(v -> assertThat(v.getUpdateProcessName()).hasValue("upd-name"));
 }
 
+/**
+ Test of toValue method that the job definitions made from the same JSON text are shared.
+
+ @param jsonSvc the {@code JsonService}. It provides by Mockito.
+ @since 3.0.0
+ */
+@Test
+void testToValueSharesJobdef(@Mock JsonService jsonSvc) {
+
+    var instance = new JobDxo.Impl(jsonSvc);
+
+    doReturn(mock(JobdefValue.class), mock(JobdefValue.class)).when(jsonSvc).fromJsonValue(any(),
+        eq(JobdefValue.class));
+
+    var first = instance.toValue(newEntity(SJson.lazyOf("{\"id\":\"jobdef-id\"}")));
+    var second = instance.toValue(newEntity(SJson.lazyOf("{\"id\":\"jobdef-id\"}")));
+
+    assertThat(second.getJobdef()).isSameAs(first.getJobdef());
+
+    verify(jsonSvc).fromJsonValue(any(), eq(JobdefValue.class));
+}
+
+/**
+ Test of toValue method if the jobdef is not lazy. The value is bound on every call without the cache.
+
+ @param jsonSvc the {@code JsonService}. It provides by Mockito.
+ @since 3.0.0
+ */
+@Test
+void testToValueIfNotLazyJobdef(@Mock JsonService jsonSvc) {
+
+    var instance = new JobDxo.Impl(jsonSvc);
+
+    doReturn(mock(JobdefValue.class), mock(JobdefValue.class)).when(jsonSvc).fromJsonValue(any(),
+        eq(JobdefValue.class));
+
+    var jobdef = SJson.of(Json.createObjectBuilder().add("id", "jobdef-id").build());
+
+    var first = instance.toValue(newEntity(jobdef));
+    var second = instance.toValue(newEntity(jobdef));
+
+    assertThat(second.getJobdef()).isNotSameAs(first.getJobdef());
+
+    verify(jsonSvc, times(2)).fromJsonValue(any(), eq(JobdefValue.class));
+}
+
+private static JobEntity newEntity(SJson jobdef) {
+    var entity = new JobEntity();
+    entity.setId("job-id");
+    entity.setStatus(JobStatus.SCHEDULE);
+    entity.setKind(JobKind.IMPORT);
+    entity.setTarget(JobTarget.USER);
+    entity.setScheduleTime(LocalDateTime.of(2001, 1, 1, 1, 1, 1));
+    entity.setLimitTime(LocalDateTime.of(2002, 2, 2, 2, 2, 2));
+    entity.setProperties(SJson.of(JsonValue.EMPTY_JSON_OBJECT));
+    entity.setJobdefId("jobdef-id");
+    entity.setJobdef(jobdef);
+
+    return entity;
+}
+
 }
@@ -27,7 +27,9 @@ package jp.mydns.projectk.safi.entity.convertor;
 
 import jakarta.json.Json;
 import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParsingException;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import org.junit.jupiter.api.Test;
 import jp.mydns.projectk.safi.value.SJson;
 
@@ -81,6 +83,34 @@ class JsonConvertorTest {
         assertThat(result).isEqualTo(expect);
     }
 
+    /**
+     * Test of convertToEntityAttribute method. The original string is written back if it is not modified.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testConvertToEntityAttributeAndBack() {
+        var expect = "{ \"k\" : [1, 2] }";
+
+        var convertor = new JsonConvertor();
+
+        var result = convertor.convertToDatabaseColumn(convertor.convertToEntityAttribute(expect));
+
+        assertThat(result).isEqualTo(expect);
+    }
+
+    /**
+     * Test of convertToEntityAttribute method if malformed. It is thrown at the time of unwrap.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testConvertToEntityAttributeIfMalformed() {
+        var result = new JsonConvertor().convertToEntityAttribute("{");
+
+        assertThatExceptionOfType(JsonParsingException.class).isThrownBy(result::unwrap);
+    }
+
     /**
      * Test of convertToEntityAttribute method if null.
      *
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.service;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import jp.mydns.projectk.safi.value.ContentMap;
+import jp.mydns.projectk.safi.value.JsonObjectConvertor;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of class {@code DigestService}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class DigestServiceTest {
+
+    /**
+     * Test of digest method. It is a SHA-512 of the canonical JSON.
+     *
+     * @throws NoSuchAlgorithmException if SHA-512 is not supported
+     * @since 3.0.0
+     */
+    @Test
+    void testDigest() throws NoSuchAlgorithmException {
+        var json = """
+            { "name": "ta\\"ro\\u0001\\n", "id": 12, "props": {"z": [true, false, null], "a": "日本🍣\\\\"} }
+            """;
+
+        var expect = sha512("{\"id\":12,\"name\":\"ta\\\"ro\\u0001\\n\",\"props\":{\"a\":\"日本🍣\\\\\","
+            + "\"z\":[true,false,null]}}");
+
+        var result = new DigestService.Impl().digest(parse(json));
+
+        assertThat(result).hasSize(128).isEqualTo(expect);
+    }
+
+    /**
+     * Test of digest method if member order and number notation are different.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDigestIfEquivalent() {
+        var instance = new DigestService.Impl();
+
+        var expect = instance.digest(parse("{\"a\": 1, \"b\": [1.5, 100, -7]}"));
+
+        assertThat(instance.digest(parse("{\"b\": [15e-1, 1E2, -7.000], \"a\": 1.0}"))).isEqualTo(expect);
+        assertThat(instance.digest(parse("{\"b\": [1.5, 100, 7], \"a\": 1}"))).isNotEqualTo(expect);
+    }
+
+    /**
+     * Test of digest method if the canonical JSON is larger than the internal buffer.
+     *
+     * @throws NoSuchAlgorithmException if SHA-512 is not supported
+     * @since 3.0.0
+     */
+    @Test
+    void testDigestIfLarge() throws NoSuchAlgorithmException {
+        var text = "あ".repeat(10_000);
+        var big = "9".repeat(30);
+
+        var expect = sha512("[\"%s\",%s,-9223372036854775808]".formatted(text, big));
+
+        var result = new DigestService.Impl().digest(
+            Json.createArrayBuilder().add(text).add(new BigInteger(big)).add(Long.MIN_VALUE).build());
+
+        assertThat(result).isEqualTo(expect);
+    }
+
+    /**
+     * Test of digest method if the number has a huge exponent. It is written in the exponent form instead of expanding
+     * it to the plain form.
+     *
+     * @throws NoSuchAlgorithmException if SHA-512 is not supported
+     * @since 3.0.0
+     */
+    @Test
+    void testDigestIfHugeExponent() throws NoSuchAlgorithmException {
+        var instance = new DigestService.Impl();
+
+        var expect = sha512("[1E+999999999,1E+101,%s,1E-999999999]".formatted("1" + "0".repeat(100)));
+
+        var result = instance.digest(parse("[1e999999999, 10e100, 1e100, 1e-999999999]"));
+
+        assertThat(result).isEqualTo(expect);
+        assertThat(instance.digest(parse("[10.0e999999998]"))).isEqualTo(instance.digest(parse("[1E+999999999]")));
+    }
+
+    /**
+     * Test of digest method as the digest of {@code ContentMap}. It is same regardless of the convertor and the member
+     * order.
+     *
+     * @param tmpDir temporary directory
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Test
+    void testDigestAsContentMapDigest(@TempDir Path tmpDir) throws IOException {
+        var instance = new DigestService.Impl();
+
+        var src = List.of(Map.entry("a", parse("{\"id\": \"a\", \"n\": 1, \"tags\": [\"x\", \"y\"]}").asJsonObject()));
+        var reordered = List.of(Map.entry("a", parse("{\"tags\": [\"x\", \"y\"], \"n\": 1.0, \"id\": \"a\"}")
+            .asJsonObject()));
+
+        var text = new ContentMap.Convertor<JsonObject>() {
+            @Override
+            public String serialize(JsonObject c) {
+                return c.toString();
+            }
+
+            @Override
+            public JsonObject deserialize(String s) {
+                return parse(s).asJsonObject();
+            }
+        };
+
+        try (var byText = new ContentMap.Builder<>(text).withDigest(instance::digest).build(src.iterator(), tmpDir);
+            var byBinary = new ContentMap.Builder<>(new JsonObjectConvertor()).withDigest(instance::digest)
+                .build(reordered.iterator(), tmpDir);) {
+
+            assertThat(byText.digest("a")).isEqualTo(instance.digest(src.getFirst().getValue()));
+            assertThat(byBinary.digests()).containsExactlyElementsOf(byText.digests().toList());
+        }
+    }
+
+    /**
+     * Test of digestAll method.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDigestAll() {
+        var instance = new DigestService.Impl();
+
+        List<JsonValue> values = IntStream.range(0, 1000)
+            .mapToObj(i -> (JsonValue) Json.createObjectBuilder().add("id", "u" + i).add("n", i).build()).toList();
+
+        var expect = values.stream().map(instance::digest).toList();
+
+        assertThat(instance.digestAll(values)).isEqualTo(expect);
+        assertThat(instance.digestAll(values.subList(0, 3))).isEqualTo(expect.subList(0, 3));
+    }
+
+    private JsonValue parse(String json) {
+        try (var r = Json.createReader(new StringReader(json))) {
+            return r.readValue();
+        }
+    }
+
+    private String sha512(String canonical) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-512")
+            .digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import jp.mydns.projectk.safi.util.DiffUtils.Change;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code DiffUtils}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class DiffUtilsTest {
+
+    /**
+     * Test of diff method.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiff() {
+        var incoming = Stream.of(Map.entry("a", "1"), Map.entry("B", "2"), Map.entry("c", "3"), Map.entry("e", "5"));
+        var stored = Stream.of(Map.entry("b", "2"), Map.entry("C", "0"), Map.entry("d", "4"), Map.entry("f", "6"));
+
+        var result = DiffUtils.diff(incoming, stored).toList();
+
+        assertThat(result).containsExactly(new Change(Change.Kind.INSERT, "a"), new Change(Change.Kind.UPDATE, "c"),
+            new Change(Change.Kind.DELETE, "d"), new Change(Change.Kind.INSERT, "e"),
+            new Change(Change.Kind.DELETE, "f"));
+    }
+
+    /**
+     * Test of diff method if either is empty.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiffIfEmpty() {
+        assertThat(DiffUtils.diff(Stream.of(Map.entry("a", "1")), Stream.empty()))
+            .containsExactly(new Change(Change.Kind.INSERT, "a"));
+        assertThat(DiffUtils.diff(Stream.empty(), Stream.of(Map.entry("a", "1"))))
+            .containsExactly(new Change(Change.Kind.DELETE, "a"));
+        assertThat(DiffUtils.diff(Stream.empty(), Stream.empty())).isEmpty();
+    }
+
+    /**
+     * Test of diff method that it is lazy and closes both sources.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiffIsLazy() {
+        var fetched = new ArrayList<String>();
+        var closed = new ArrayList<String>();
+        var stored = Stream.of(Map.entry("a", "1"), Map.entry("b", "2")).peek(e -> fetched.add(e.getKey()))
+            .onClose(() -> closed.add("stored"));
+
+        try (var result = DiffUtils.diff(Stream.<Map.Entry<String, String>>empty()
+            .onClose(() -> closed.add("incoming")), stored);) {
+
+            assertThat(fetched).isEmpty();
+            assertThat(result.findFirst()).contains(new Change(Change.Kind.DELETE, "a"));
+            assertThat(fetched).containsExactly("a", "b");
+        }
+
+        assertThat(closed).containsExactly("incoming", "stored");
+    }
+
+    /**
+     * Test of diff method if not ordered.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiffIfNotOrdered() {
+        var incoming = Stream.of(Map.entry("a", "1"), Map.entry("_", "2"));
+
+        assertThatIllegalStateException().isThrownBy(() -> DiffUtils.diff(incoming, Stream.empty()).toList())
+            .withMessageContaining("incoming");
+        assertThatIllegalStateException().isThrownBy(() -> DiffUtils.diff(Stream.empty(),
+            Stream.of(Map.entry("a", "1"), Map.entry("A", "1"))).toList());
+    }
+
+    /**
+     * Test of diff method if ids contain symbols. The stored ids are ordered by the binary of the lower case as
+     * {@code ContentDao} does, and it is same as the order of {@code ContentMap}. The upper case order of a collation
+     * such as {@code utf8mb4_general_ci} is not.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiffIfSymbols() {
+        // Note: Every printable ASCII character except lower case letters, such as "a_b" and "aBb".
+        List<String> ids = IntStream.rangeClosed(0x20, 0x7e).filter(c -> c < 'a' || c > 'z')
+            .mapToObj(c -> "a" + (char) c + "b").toList();
+
+        var incoming = ids.stream().sorted(String.CASE_INSENSITIVE_ORDER).map(id -> Map.entry(id, "1"));
+        var stored = ids.stream().map(id -> id.toLowerCase(Locale.ROOT)).sorted()
+            .map(id -> Map.entry(id, "1"));
+
+        assertThat(DiffUtils.diff(incoming, stored)).isEmpty();
+
+        var upperOrdered = ids.stream().sorted(Comparator.comparing(id -> id.toUpperCase(Locale.ROOT)))
+            .map(id -> Map.entry(id, "1"));
+
+        assertThatIllegalStateException().isThrownBy(() -> DiffUtils.diff(Stream.empty(), upperOrdered).toList());
+    }
+
+    /**
+     * Test of diff method with a large number of contents.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testDiffLarge() {
+        var incoming = IntStream.range(0, 100_000).mapToObj(i -> Map.entry("%08d".formatted(i), "x"));
+        var stored = IntStream.range(50_000, 150_000)
+            .mapToObj(i -> Map.entry("%08d".formatted(i), i % 2 == 0 ? "x" : "y"));
+
+        var result = DiffUtils.diff(incoming, stored).toList();
+
+        assertThat(result).filteredOn(c -> c.getKind() == Change.Kind.INSERT).hasSize(50_000);
+        assertThat(result).filteredOn(c -> c.getKind() == Change.Kind.UPDATE).hasSize(25_000);
+        assertThat(result).filteredOn(c -> c.getKind() == Change.Kind.DELETE).hasSize(50_000);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.util;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.stream.JsonGenerationException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import jp.mydns.projectk.safi.test.junit.JsonbParameterResolver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test of class {@code JsonTreeGenerator}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+@ExtendWith(JsonbParameterResolver.class)
+class JsonTreeGeneratorTest {
+
+    /**
+     * Test that {@code JsonValueUtils#toJsonValue(Object, Jsonb)} builds same value as parsing JSON text.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToJsonValue(Jsonb jsonb) {
+        var bean = new Bean();
+
+        for (Object value : List.of(bean, List.of(bean, bean), "text", 1, Map.of("k", List.of()))) {
+            var expect = jsonb.fromJson(jsonb.toJson(value), JsonValue.class);
+
+            assertThat(JsonValueUtils.toJsonValue(value, jsonb)).isEqualTo(expect);
+        }
+    }
+
+    /**
+     * Test of {@code JsonValueUtils#toJsonValue(Object, Jsonb)} if the {@code Jsonb} cannot serialize into a
+     * {@code JsonGenerator}.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testToJsonValueIfNotSupported(Jsonb jsonb) {
+        var proxy = (Jsonb) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Jsonb.class},
+            (p, m, a) -> {
+            try {
+                return m.invoke(jsonb, a);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        });
+
+        var expect = jsonb.fromJson(jsonb.toJson(new Bean()), JsonValue.class);
+
+        assertThat(JsonValueUtils.toJsonValue(new Bean(), proxy)).isEqualTo(expect);
+    }
+
+    /**
+     * Test of generating by each method.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testGenerate() {
+        var instance = new JsonTreeGenerator();
+
+        instance.writeStartObject().write("s", "v").write("i", 1).write("l", 2L).write("d", 1.5)
+            .write("b", true).writeNull("n").write("bd", BigDecimal.TEN).writeStartArray("a").write(1).writeNull()
+            .writeStartObject().writeKey("k").write("v").writeEnd().writeEnd().writeKey("o").writeStartObject()
+            .writeEnd().writeEnd();
+
+        var expect = Json.createObjectBuilder().add("s", "v").add("i", 1).add("l", 2L).add("d", 1.5)
+            .add("b", true).addNull("n").add("bd", BigDecimal.TEN).add("a", Json.createArrayBuilder().add(1)
+            .addNull().add(Json.createObjectBuilder().add("k", "v"))).add("o", JsonValue.EMPTY_JSON_OBJECT).build();
+
+        assertThat(instance.getResult()).isEqualTo(expect);
+    }
+
+    /**
+     * Test of generating in invalid context.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testGenerateIfInvalidContext() {
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(
+            () -> new JsonTreeGenerator().writeStartObject().write("v"));
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(
+            () -> new JsonTreeGenerator().writeStartArray().write("k", "v"));
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(
+            () -> new JsonTreeGenerator().writeStartObject().writeKey("k").writeEnd());
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(
+            () -> new JsonTreeGenerator().write(1).write(2));
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(
+            () -> new JsonTreeGenerator().writeEnd());
+
+        var incomplete = new JsonTreeGenerator();
+        incomplete.writeStartArray();
+
+        assertThatExceptionOfType(JsonGenerationException.class).isThrownBy(() -> incomplete.getResult());
+    }
+
+    public static class Bean {
+
+        private String name = "name";
+        private int count = 3;
+        private BigDecimal ratio = new BigDecimal("0.25");
+        private Boolean enabled = true;
+        private String absent;
+        private LocalDateTime time = LocalDateTime.of(2000, 1, 2, 3, 4, 5);
+        private List<Map<String, Object>> items = List.of(Map.of("k", "v"), Map.of("n", 1.5));
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public BigDecimal getRatio() {
+            return ratio;
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public String getAbsent() {
+            return absent;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        public List<Map<String, Object>> getItems() {
+            return items;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.util;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code JsonValueUtils}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class JsonValueUtilsTest {
+
+    /**
+     * Test of merge method. Keys of the base that are not overwritten come first, then the deep merged keys, then the
+     * other overwritten keys.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testMerge() {
+        var base = Json.createObjectBuilder().add("k1", "a").add("k2", Json.createObjectBuilder().add("x", 1))
+            .add("k3", "c").add("k4", "d").build();
+        var ow = Json.createObjectBuilder().add("k4", JsonValue.NULL).add("k3", "C")
+            .add("k2", Json.createObjectBuilder().add("y", 2).add("x", JsonValue.NULL)).add("k5", JsonValue.NULL)
+            .add("k6", Json.createObjectBuilder().add("z", JsonValue.NULL)).build();
+
+        var result = JsonValueUtils.merge(base, ow);
+
+        assertThat(result).hasToString("{\"k1\":\"a\",\"k2\":{\"y\":2},\"k3\":\"C\",\"k6\":{\"z\":null}}");
+    }
+
+    /**
+     * Test of merge method. Values that are not overwritten are reused.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testMergeReusesUntouched() {
+        var base = Json.createObjectBuilder().add("k1", Json.createObjectBuilder().add("x", 1))
+            .add("k2", Json.createObjectBuilder().add("y", 2)).build();
+        var ow = Json.createObjectBuilder().add("k2", Json.createObjectBuilder().add("y", 3)).build();
+
+        var result = JsonValueUtils.merge(base, ow);
+
+        assertThat(result.get("k1")).isSameAs(base.get("k1"));
+        assertThat(JsonValueUtils.merge(base, List.of(JsonValue.EMPTY_JSON_OBJECT))).isSameAs(base);
+    }
+
+    /**
+     * Test of merge method with overwrite values. The result is same as merging each of them in order.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testMergeOverwrites() {
+        var random = new Random(14);
+
+        for (int i = 0; i < 500; i++) {
+            var base = randomObject(random, 3);
+            var ows = new ArrayList<JsonObject>();
+
+            for (int j = random.nextInt(5); j > 0; j--) {
+                ows.add(randomObject(random, 3));
+            }
+
+            var expect = base;
+
+            for (var ow : ows) {
+                expect = JsonValueUtils.merge(expect, ow);
+            }
+
+            assertThat(JsonValueUtils.merge(base, ows)).hasToString(expect.toString());
+        }
+    }
+
+    private static JsonObject randomObject(Random random, int depth) {
+        var builder = Json.createObjectBuilder();
+
+        for (int i = random.nextInt(5); i > 0; i--) {
+            var key = "k" + random.nextInt(6);
+
+            switch (depth > 0 ? random.nextInt(4) : random.nextInt(2)) {
+                case 0 ->
+                    builder.add(key, random.nextInt(10));
+                case 1 ->
+                    builder.add(key, JsonValue.NULL);
+                default ->
+                    builder.add(key, randomObject(random, depth - 1));
+            }
+        }
+
+        return builder.build();
+    }
+}
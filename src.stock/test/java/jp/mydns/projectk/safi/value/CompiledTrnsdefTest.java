@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.Json;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code CompiledTrnsdef}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class CompiledTrnsdefTest {
+
+    /**
+     * Test of apply method with the example of the transform definition document.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testApply() {
+        var trnsdef = new LinkedHashMap<String, String>();
+        trnsdef.put("message", "[name] & `'s number is ` & LPAD( TRIM( [id] ), `4`, `P` )");
+        trnsdef.put("name", "toTitleCase([name]) & ` ` & toTitleCase(`mC dONALD`)");
+        trnsdef.put("id", "[id]");
+
+        var record = Json.createObjectBuilder().add("id", " 01 ").add("name", "taro").build();
+
+        var result = CompiledTrnsdef.compile(trnsdef).apply(record);
+
+        assertThat(result).containsExactly(Map.entry("message", "taro's number is PP01"),
+            Map.entry("name", "Taro Mc Donald"), Map.entry("id", " 01 "));
+    }
+
+    /**
+     * Test of apply method if escaped literal, missing input and input other than a string.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testApplyIfEscapedAndMissing() {
+        var trnsdef = Map.of("v", "`a\\`b\\\\c` & [missing] & [null] & [num] & LPAD([s], [len], [pad])");
+
+        var record = Json.createObjectBuilder().addNull("null").add("num", 12.5).add("s", "123456")
+            .add("len", "3").add("pad", "0").build();
+
+        var compiled = CompiledTrnsdef.compile(trnsdef);
+
+        assertThat(compiled.apply(record)).containsOnly(Map.entry("v", "a`b\\c12.5123456"));
+        assertThat(compiled.getInputNames()).containsExactly("missing", "null", "num", "s", "len", "pad");
+    }
+
+    /**
+     * Test of compile method if invalid transform expression.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testCompileIfInvalid() {
+        List.of("", "`abc", "[abc", "[a] [b]", "[a] &", "UNKNOWN([a])", "TRIM([a], [b])", "TRIM [a]",
+            "LPAD([a], `-1`, `0`)", "LPAD([a], `2`, `00`)", "LPAD([a], `4097`, `0`)", "LPAD([a], `2000000000`, `P`)",
+            "LPAD([a], `2000000000`, [pad])", "TRIM([a]")
+            .forEach(e -> assertThatIllegalArgumentException().isThrownBy(
+            () -> CompiledTrnsdef.compile(Map.of("v", e))));
+    }
+
+    /**
+     * Test of apply method if the argument of function is invalid at runtime.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testApplyIfInvalidArgument() {
+        var compiled = CompiledTrnsdef.compile(Map.of("v", "LPAD([a], [len], `0`)"));
+
+        var record = Json.createObjectBuilder().add("a", "1").add("len", "x").build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> compiled.apply(record));
+    }
+
+    /**
+     * Test of apply method if the length of {@code LPAD} is the max. The length beyond the max is rejected also at
+     * runtime.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testApplyIfMaxLength() {
+        var compiled = CompiledTrnsdef.compile(Map.of("c", "LPAD([a], `4096`, `0`) & `|` & LPAD([a], `2`, `0`)",
+            "d", "LPAD([a], [len], `0`)"));
+
+        var record = Json.createObjectBuilder().add("a", "123").add("len", "4096").build();
+
+        assertThat(compiled.apply(record)).containsOnly(
+            Map.entry("c", "0".repeat(4093) + "123|123"), Map.entry("d", "0".repeat(4093) + "123"));
+
+        var tooLong = Json.createObjectBuilder().add("a", "1").add("len", "4097").build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> compiled.apply(tooLong));
+    }
+}
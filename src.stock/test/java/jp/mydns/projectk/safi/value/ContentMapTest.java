@@ -26,12 +26,28 @@
 package jp.mydns.projectk.safi.value;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 /**
  Test of class {ContentMap}.
@@ -135,6 +151,26 @@ void testStream() throws IOException {
     }
 }
 
+/**
+ Test of parallelStream method.
+
+ @param mode index mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.IndexMode.class)
+void testParallelStream(ContentMap.IndexMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    var src = IntStream.range(0, 10_000).mapToObj(i -> Map.entry("%05d".formatted(i), "v" + i)).iterator();
+
+    try (var instance = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(mode)
+        .withStorageMode(ContentMap.StorageMode.MEMORY_MAPPED).build(src, tmpDir);) {
+
+        assertThat(instance.parallelStream()).isNotEmpty().containsExactlyElementsOf(instance.stream().toList());
+    }
+}
+
 /**
  Test of get method.
 
@@ -152,6 +188,26 @@ void testGet() throws IOException {
     }
 }
 
+/**
+ Test of get method when read from multiple threads.
+
+ @param mode storage mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.StorageMode.class)
+void testGetConcurrently(ContentMap.StorageMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    var src = IntStream.range(0, 10_000).mapToObj(i -> Map.entry("k" + i, "v" + i)).iterator();
+
+    try (var instance = new ContentMap<String>(src, tmpDir, new TestConvertor(), mode);) {
+
+        assertThat(IntStream.range(0, 10_000).parallel().mapToObj(i -> instance.get("k" + i)))
+            .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 10_000).mapToObj(i -> "v" + i).toList());
+    }
+}
+
 /**
  Test of hasDuplicates method.
 
@@ -191,6 +247,325 @@ void testDuplicates() throws IOException {
     }
 }
 
+/**
+ Test that the index modes give the same result.
+
+ @param mode index mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.IndexMode.class)
+void testIndexMode(ContentMap.IndexMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    var src = Stream.of(Map.entry("b", "v1"), Map.entry("a", "v2"), Map.entry("K", "v3"), Map.entry("c", "v4"),
+        Map.entry("k", "v5"), Map.entry("k", "v6"));
+
+    try (var instance = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(mode)
+        .build(src.iterator(), tmpDir);) {
+
+        assertThat(instance.keySet()).containsExactly("a", "b", "c");
+        assertThat(instance.get("A")).isEqualTo("v2");
+        assertThat(instance.containsKey("k")).isFalse();
+        assertThat(instance.duplicates()).containsExactly("v3", "v5", "v6");
+    }
+}
+
+/**
+ Test of compressed working file.
+
+ @param mode storage mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.StorageMode.class)
+void testCompression(ContentMap.StorageMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    // Note: Includes a content larger than the block size.
+    var src = IntStream.range(0, 1_000).mapToObj(i -> Map.entry("k" + i, i == 500 ? "x".repeat(300) : "v" + i));
+
+    try (var instance = new ContentMap.Builder<String>(new TestConvertor()).withStorageMode(mode)
+        .withCompression(128).build(src.iterator(), tmpDir);) {
+
+        assertThat(instance.get("k0")).isEqualTo("v0");
+        assertThat(instance.get("k500")).isEqualTo("x".repeat(300));
+        assertThat(instance.get("k999")).isEqualTo("v999");
+        assertThat(instance.parallelStream()).hasSize(1_000);
+    }
+}
+
+/**
+ Test of digest.
+
+ @param mode index mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.IndexMode.class)
+void testDigest(ContentMap.IndexMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+    var src = List.of(Map.entry("b", "v2"), Map.entry("a", "v1"), Map.entry("B", "v3"), Map.entry("c", "v4"));
+    var expectA = sha512("v1");
+
+    try (var instance = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(mode)
+        .withDigest(ContentMapTest::sha512).build(src.iterator(), tmpDir);) {
+
+        assertThat(instance.digest("A")).isEqualTo(expectA).hasSize(128);
+        assertThat(instance.digest("b")).isNull();
+        assertThat(instance.digests()).extracting(Map.Entry::getKey).containsExactly("a", "c");
+        assertThat(instance.digests()).first().extracting(Map.Entry::getValue).isEqualTo(expectA);
+    }
+}
+
+/**
+ Test of digest when it is not computed.
+
+ @since 3.0.0
+ */
+@Test
+void testDigestIfNotComputed() throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    try (var instance = new ContentMap<>(List.of(Map.entry("a", "v1")).iterator(), tmpDir, new TestConvertor());) {
+        assertThatIllegalStateException().isThrownBy(() -> instance.digest("a"));
+        assertThatIllegalStateException().isThrownBy(() -> instance.digests());
+    }
+}
+
+/**
+ Test of pipelined construction.
+
+ @param mode index mode
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.IndexMode.class)
+void testParallelism(ContentMap.IndexMode mode) throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    // Note: Every 1000th id is duplicated.
+    Supplier<Stream<Map.Entry<String, String>>> src = () -> IntStream.range(0, 20_000)
+        .mapToObj(i -> Map.entry("k" + (i % 1000 == 999 ? i - 1 : i), "v" + i));
+
+    try (var expect = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(mode)
+        .withDigest(ContentMapTest::sha512).build(src.get().iterator(), tmpDir);
+        var instance = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(mode)
+            .withDigest(ContentMapTest::sha512).withParallelism(4).withThreadFactory(Thread.ofVirtual().factory())
+            .build(src.get().iterator(), tmpDir);) {
+
+        assertThat(instance.keySet()).containsExactlyElementsOf(expect.keySet());
+        assertThat(instance.stream()).containsExactlyElementsOf(expect.stream().toList());
+        assertThat(instance.digests()).containsExactlyElementsOf(expect.digests().toList());
+        assertThat(instance.duplicates()).containsExactlyElementsOf(expect.duplicates().toList());
+    }
+}
+
+/**
+ Test of pipelined construction if the serialization fails.
+
+ @since 3.0.0
+ */
+@Test
+void testParallelismIfSerializationFails() {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+    var src = IntStream.range(0, 10_000).mapToObj(i -> Map.entry("k" + i, i == 5_000 ? "fail" : "v" + i));
+
+    var converter = new TestConvertor() {
+        @Override
+        public String serialize(String c) {
+            if (c.equals("fail")) {
+                throw new IllegalArgumentException("fail");
+            }
+
+            return super.serialize(c);
+        }
+    };
+
+    assertThatIllegalArgumentException().isThrownBy(() -> new ContentMap.Builder<String>(converter)
+        .withParallelism(4).build(src.iterator(), tmpDir)).withMessage("fail");
+}
+
+/**
+ Test of saving and reopening a snapshot.
+
+ @param storageMode storage mode
+ @param tmpDir temporary directory
+ @since 3.0.0
+ */
+@ParameterizedTest
+@EnumSource(ContentMap.StorageMode.class)
+void testSnapshot(ContentMap.StorageMode storageMode, @TempDir Path tmpDir) throws IOException {
+    var snapshotDir = tmpDir.resolve("snapshot");
+
+    for (int blockSize : new int[]{0, 64}) {
+        var src = List.of(Map.entry("b", "v2"), Map.entry("a", "v1"), Map.entry("B", "v3"), Map.entry("c", "v4"));
+        var builder = new ContentMap.Builder<String>(new TestConvertor()).withStorageMode(storageMode)
+            .withDigest(ContentMapTest::sha512);
+
+        if (blockSize > 0) {
+            builder.withCompression(blockSize);
+        }
+
+        try (var saved = builder.build(src.iterator(), tmpDir);) {
+            saved.save(snapshotDir);
+
+            for (var indexMode : ContentMap.IndexMode.values()) {
+                try (var instance = builder.withIndexMode(indexMode).open(snapshotDir);) {
+                    assertThat(instance.keySet()).containsExactly("a", "c");
+                    assertThat(instance.get("A")).isEqualTo("v1");
+                    assertThat(instance.stream()).containsExactly("v1", "v4");
+                    assertThat(instance.digests()).containsExactlyElementsOf(saved.digests().toList());
+                    assertThat(instance.hasDuplicates()).isFalse();
+
+                    // Note: A reopened snapshot can be saved again.
+                    instance.save(snapshotDir);
+                }
+            }
+        }
+
+        // Note: Closing does not delete the snapshot.
+        try (var instance = builder.open(snapshotDir);) {
+            assertThat(instance.get("c")).isEqualTo("v4");
+        }
+    }
+}
+
+/**
+ Test of opening a broken snapshot.
+
+ @param tmpDir temporary directory
+ @since 3.0.0
+ */
+@Test
+void testSnapshotIfBroken(@TempDir Path tmpDir) throws IOException {
+    var builder = new ContentMap.Builder<String>(new TestConvertor());
+
+    try (var saved = builder.build(List.of(Map.entry("a", "v1")).iterator(), tmpDir);) {
+        saved.save(tmpDir.resolve("1"));
+        saved.save(tmpDir.resolve("2"));
+    }
+
+    Files.copy(tmpDir.resolve("2").resolve("contents"), tmpDir.resolve("1").resolve("contents"),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    assertThatIOException().isThrownBy(() -> builder.open(tmpDir.resolve("1")));
+    assertThatIOException().isThrownBy(() -> builder.open(tmpDir.resolve("none")));
+}
+
+/**
+ Test of cache.
+
+ @since 3.0.0
+ */
+@Test
+void testCache() throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+    var deserialized = new LongAdder();
+    var converter = new TestConvertor() {
+        @Override
+        public String deserialize(String s) {
+            deserialized.increment();
+            return super.deserialize(s);
+        }
+    };
+    var src = IntStream.range(0, 1_000).mapToObj(i -> Map.entry("k" + i, "v" + i));
+
+    try (var instance = new ContentMap.Builder<String>(converter).withCache(16).build(src.iterator(), tmpDir);) {
+
+        // Note: Hot ids are requested repeatedly among ids requested only once.
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(instance.get("k" + i % 8)).isEqualTo("v" + i % 8);
+            assertThat(instance.get("k" + i)).isEqualTo("v" + i);
+        }
+
+        assertThat(instance.getCacheHitCount() + instance.getCacheMissCount()).isEqualTo(2_000);
+        assertThat(instance.getCacheHitCount()).isGreaterThan(900);
+        assertThat(deserialized.sum()).isEqualTo(instance.getCacheMissCount());
+        assertThat(instance.get("none")).isNull();
+    }
+}
+
+/**
+ Test of cache with concurrent readers.
+
+ @since 3.0.0
+ */
+@Test
+void testCacheConcurrently() throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+    var src = IntStream.range(0, 1_000).mapToObj(i -> Map.entry("k" + i, "v" + i));
+
+    try (var instance = new ContentMap.Builder<String>(new TestConvertor()).withCache(100)
+        .withStorageMode(ContentMap.StorageMode.MEMORY_MAPPED).build(src.iterator(), tmpDir);) {
+
+        assertThat(IntStream.range(0, 100_000).parallel().allMatch(i -> instance.get("k" + i % 200)
+            .equals("v" + i % 200))).isTrue();
+        assertThat(instance.getCacheHitCount() + instance.getCacheMissCount()).isEqualTo(100_000);
+    }
+}
+
+/**
+ Test of duplicates when a large number of ids are duplicated.
+
+ @since 3.0.0
+ */
+@Test
+void testManyDuplicates() throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    // Note: Each id of multiples of 3 appears three times, in different cases.
+    var src = Stream.of("id", "ID", "Id").flatMap(p -> IntStream.range(0, 30_000)
+        .filter(i -> i % 3 == 0 || p.equals("id")).mapToObj(i -> Map.entry(p + i, "v" + i)));
+
+    try (var instance = new ContentMap<>(src.iterator(), tmpDir, new TestConvertor());) {
+        assertThat(instance.size()).isEqualTo(20_000);
+        assertThat(instance.containsKey("iD1")).isTrue();
+        assertThat(instance.containsKey("iD3")).isFalse();
+        assertThat(instance.duplicates()).hasSize(30_000);
+    }
+}
+
+/**
+ Test that the index modes give the same result for many ids, where the duplicate filter of the TREE index grows and
+ gives false positives.
+
+ @since 3.0.0
+ */
+@Test
+void testIndexModeIfManyIds() throws IOException {
+    var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+    // Note: Each id of multiples of 97 appears again later in upper case, and multiples of 970 appear a third time.
+    Supplier<Stream<Map.Entry<String, String>>> src = () -> Stream.of(
+        IntStream.range(0, 100_000).mapToObj(i -> Map.entry("id" + i, "v" + i)),
+        IntStream.range(0, 100_000).filter(i -> i % 97 == 0).mapToObj(i -> Map.entry("ID" + i, "w" + i)),
+        IntStream.range(0, 100_000).filter(i -> i % 970 == 0).mapToObj(i -> Map.entry("Id" + i, "x" + i)))
+        .flatMap(s -> s);
+
+    try (var tree = new ContentMap.Builder<String>(new TestConvertor()).withIndexMode(ContentMap.IndexMode.TREE)
+        .build(src.get().iterator(), tmpDir);
+        var compact = new ContentMap.Builder<String>(new TestConvertor())
+            .withIndexMode(ContentMap.IndexMode.COMPACT).build(src.get().iterator(), tmpDir);) {
+
+        assertThat(tree.size()).isEqualTo(100_000 - 1_031);
+        assertThat(tree.keySet()).containsExactlyElementsOf(compact.keySet());
+        assertThat(tree.containsKey("iD97")).isFalse();
+        assertThat(tree.get("iD98")).isEqualTo("v98");
+        assertThat(tree.duplicates()).hasSize(1_031 * 2 + 104).containsExactlyElementsOf(compact.duplicates()
+            .toList());
+    }
+}
+
+private static String sha512(String c) {
+    try {
+        return HexFormat.of().formatHex(
+            MessageDigest.getInstance("SHA-512").digest(c.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+        throw new IllegalStateException(ex);
+    }
+}
+
 private class TestConvertor implements ContentMap.Convertor<String> {
 
 @Override
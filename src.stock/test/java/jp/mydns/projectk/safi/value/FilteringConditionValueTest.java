@@ -106,6 +106,26 @@ class FilteringConditionValueTest {
         assertThat(result).isEqualTo(expect);
     }
 
+    /**
+     * Test of deserialize method if it contains null child and unknown property, of class Deserializer.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfNullChildAndUnknownProperty(Jsonb jsonb) {
+        var json = "{\"operation\": \"OR\", \"unknown\": [{\"name\": \"x\"}], \"children\": ["
+            + "{\"operation\": \"IS_NULL\", \"name\": \"n\", \"unknown\": {\"value\": \"x\"}}, null]}";
+
+        var result = jsonb.fromJson(json, FilteringConditionValue.class);
+
+        assertThat(result).isInstanceOf(NodeConditionValue.class)
+            .hasToString("FilteringCondition.Node{operation=OR, children=[FilteringCondition.Leaf{operation=IS_NULL,"
+                + " name=n, value=null}, null]}");
+        assertThat(jsonb.toJson(result))
+            .isEqualTo("{\"operation\":\"OR\",\"children\":[{\"operation\":\"IS_NULL\",\"name\":\"n\"},null]}");
+    }
+
     /**
      * Test of toString method if leaf.
      *
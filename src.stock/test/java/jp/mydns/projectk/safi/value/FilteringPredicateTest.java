@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.bind.Jsonb;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import jp.mydns.projectk.safi.test.junit.JsonbParameterResolver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test of class {@code FilteringPredicate}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+@ExtendWith(JsonbParameterResolver.class)
+class FilteringPredicateTest {
+
+    private static final JsonObject RECORD = parse("""
+        {"name": "Taro Yamada", "kana": "ﾀﾛｳ", "age": "42", "score": 7.50, "big": 123456789012345678901234567890,
+         "admin": true, "nil": null, "tags": ["a"], "id": 1234567, "min": -9223372036854775808, "rate": "-1.25e2",
+         "zero": "-0.0", "exp": "1e"}
+        """);
+
+    /**
+     * Test of test method if leaf.
+     *
+     * @param operation operation
+     * @param name property name
+     * @param value value to filter on
+     * @param expect expected result
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "EQUAL, name, taro yamada, true",
+        "EQUAL, name, Taro, false",
+        "EQUAL, age, 042.0, true",
+        "EQUAL, score, 7.5, true",
+        "EQUAL, admin, TRUE, true",
+        "EQUAL, tags, a, false",
+        "EQUAL, nil, null, false",
+        "FORWARD_MATCH, name, TARO, true",
+        "FORWARD_MATCH, name, yamada, false",
+        "BACKWARD_MATCH, name, YAMADA, true",
+        "BACKWARD_MATCH, name, a Taro Yamada, false",
+        "PARTIAL_MATCH, name, O Y, true",
+        "PARTIAL_MATCH, name, oy, false",
+        "PARTIAL_MATCH, score, .5, true",
+        "GRATER_THAN, age, 9, true",
+        "GRATER_THAN, age, 42, false",
+        "LESS_THAN, age, 100, true",
+        "LESS_THAN, score, 7.6, true",
+        "GRATER_THAN, big, 123456789012345678901234567889, true",
+        "LESS_THAN, big, 1, false",
+        "FORWARD_MATCH, id, 123, true",
+        "BACKWARD_MATCH, id, 567, true",
+        "PARTIAL_MATCH, id, 345, true",
+        "PARTIAL_MATCH, id, 8, false",
+        "FORWARD_MATCH, min, -922, true",
+        "BACKWARD_MATCH, min, 808, true",
+        "EQUAL, id, abc, false",
+        "LESS_THAN, id, abc, true",
+        "EQUAL, id, 1.234567e6, true",
+        "GRATER_THAN, id, 1234566.5, true",
+        "LESS_THAN, id, 1234567.5, true",
+        "GRATER_THAN, min, -9223372036854775809, true",
+        "LESS_THAN, min, -9223372036854775807.5, true",
+        "EQUAL, age, 4.2E+1, true",
+        "GRATER_THAN, age, 41.999, true",
+        "EQUAL, rate, -125, true",
+        "LESS_THAN, rate, -124.99, true",
+        "GRATER_THAN, rate, -1.3e2, true",
+        "EQUAL, zero, 0, true",
+        "LESS_THAN, zero, 1e-9, true",
+        "EQUAL, exp, 1, false",
+        "GRATER_THAN, exp, 1, true",
+        "GRATER_THAN, name, TARO, true",
+        "LESS_THAN, name, taro z, true",
+        "LESS_THAN, missing, z, false",
+        "IS_NULL, missing, , true",
+        "IS_NULL, nil, , true",
+        "IS_NULL, name, , false"
+    })
+    void testTestIfLeaf(String operation, String name, String value, boolean expect, Jsonb jsonb) {
+        var leaf = Json.createObjectBuilder().add("operation", operation).add("name", name);
+
+        if (value != null) {
+            leaf.add("value", value);
+        }
+
+        var instance = FilteringPredicate.compile(jsonb.fromJson(leaf.build().toString(),
+            FilteringConditionValue.class));
+
+        assertThat(instance.test(RECORD)).isEqualTo(expect);
+    }
+
+    /**
+     * Test of test method if numeric strings. They are compared in the same way as {@code BigDecimal}.
+     *
+     * @param property property value
+     * @param value value to filter on
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "0, -0", "007, 7.000", ".5, 0.50", "5., 5", "+1, 1", "-1, 1", "1, -1", "10, 9.99", "9.99, 10", "1e3, 1000",
+        "1E-3, 0.001", "0.0012, 1.2e-3", "123.45, 123.46", "123.45, 123.4", "-123.45, -123.4", "1e400, 1e399",
+        "9223372036854775808, 9223372036854775807", "-0.000, 0e5", "12e+2, 1.2E3", "100, 1e2"
+    })
+    void testTestIfNumericString(String property, String value, Jsonb jsonb) {
+        var record = Json.createObjectBuilder().add("p", property).build();
+        int expect = new BigDecimal(property).compareTo(new BigDecimal(value));
+
+        for (var operation : List.of("EQUAL", "GRATER_THAN", "LESS_THAN")) {
+            var instance = FilteringPredicate.compile(jsonb.fromJson(Json.createObjectBuilder()
+                .add("operation", operation).add("name", "p").add("value", value).build().toString(),
+                FilteringConditionValue.class));
+
+            boolean matched = switch (operation) {
+                case "EQUAL" ->
+                    expect == 0;
+                case "GRATER_THAN" ->
+                    expect > 0;
+                default ->
+                    expect < 0;
+            };
+
+            assertThat(instance.test(record)).as("%s %s %s", property, operation, value).isEqualTo(matched);
+        }
+    }
+
+    /**
+     * Test of test method if node.
+     *
+     * @param operation operation
+     * @param first value to filter on of the first child
+     * @param second value to filter on of the second child
+     * @param expect expected result
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "AND, 42, taro, true",
+        "AND, 42, jiro, false",
+        "AND, 41, taro, false",
+        "OR, 41, taro, true",
+        "OR, 41, jiro, false",
+        "NOT_OR, 41, jiro, true",
+        "NOT_OR, 42, jiro, false"
+    })
+    void testTestIfNode(String operation, String first, String second, boolean expect, Jsonb jsonb) {
+        var json = """
+            {"operation": "%s", "children": [{"operation": "EQUAL", "name": "age", "value": "%s"},
+             {"operation": "AND", "children": [{"operation": "FORWARD_MATCH", "name": "name", "value": "%s"}]}]}
+            """.formatted(operation, first, second);
+
+        var instance = FilteringPredicate.compile(jsonb.fromJson(json, FilteringConditionValue.class));
+
+        assertThat(instance.test(RECORD)).isEqualTo(expect);
+    }
+
+    /**
+     * Test of test method if node has no children.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testTestIfNoChildren(Jsonb jsonb) {
+        var and = FilteringPredicate.compile(jsonb.fromJson("{\"operation\": \"AND\", \"children\": []}",
+            FilteringConditionValue.class));
+        var or = FilteringPredicate.compile(jsonb.fromJson("{\"operation\": \"OR\", \"children\": []}",
+            FilteringConditionValue.class));
+        var notOr = FilteringPredicate.compile(jsonb.fromJson("{\"operation\": \"NOT_OR\", \"children\": []}",
+            FilteringConditionValue.class));
+
+        assertThat(and.test(RECORD)).isTrue();
+        assertThat(or.test(RECORD)).isFalse();
+        assertThat(notOr.test(RECORD)).isTrue();
+    }
+
+    /**
+     * Test of getPropertyNames method.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testGetPropertyNames(Jsonb jsonb) {
+        var json = """
+            {"operation": "OR", "children": [{"operation": "EQUAL", "name": "b", "value": "1"},
+             {"operation": "IS_NULL", "name": "a"}, {"operation": "LESS_THAN", "name": "b", "value": "2"}]}
+            """;
+
+        var instance = FilteringPredicate.compile(jsonb.fromJson(json, FilteringConditionValue.class));
+
+        assertThat(instance.getPropertyNames()).containsExactly("b", "a");
+    }
+
+    /**
+     * Test of compile method if invalid condition.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testCompileIfInvalid(Jsonb jsonb) {
+        assertThatIllegalArgumentException().isThrownBy(() -> FilteringPredicate.compile(
+            jsonb.fromJson("{}", FilteringConditionValue.class)));
+        assertThatIllegalArgumentException().isThrownBy(() -> FilteringPredicate.compile(
+            jsonb.fromJson("{\"operation\": \"EQUAL\", \"name\": \"a\"}", FilteringConditionValue.class)));
+        assertThatIllegalArgumentException().isThrownBy(() -> FilteringPredicate.compile(
+            jsonb.fromJson("{\"operation\": \"AND\", \"children\": [null]}", FilteringConditionValue.class)));
+    }
+
+    /**
+     * Test of getCondition method.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testGetCondition(Jsonb jsonb) {
+        var condition = jsonb.fromJson("{\"operation\": \"OR\", \"children\": []}", FilteringConditionValue.class);
+
+        assertThat(FilteringPredicate.compile(condition).getCondition()).isSameAs(condition);
+    }
+
+    /**
+     * Test of adaptive method.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testAdaptive(Jsonb jsonb) {
+        var json = """
+            {"operation": "AND", "children": [{"operation": "PARTIAL_MATCH", "name": "mail", "value": "example"},
+             {"operation": "OR", "children": [{"operation": "EQUAL", "name": "dept", "value": "none"},
+              {"operation": "IS_NULL", "name": "leftAt"}]},
+             {"operation": "EQUAL", "name": "dept", "value": "sales"}]}
+            """;
+
+        var condition = jsonb.fromJson(json, FilteringConditionValue.class);
+
+        var records = IntStream.range(0, 300).mapToObj(i -> Json.createObjectBuilder()
+            .add("mail", "user" + i + "@example.com").add("dept", i % 10 == 0 ? "Sales" : "dev").build()).toList();
+
+        var expect = FilteringPredicate.compile(condition);
+        var instance = FilteringPredicate.adaptive(condition, 100);
+
+        assertThat(instance.getCondition()).isSameAs(condition);
+        assertThat(records).allMatch(r -> instance.test(r) == expect.test(r));
+        assertThat(instance.isOptimized()).isTrue();
+
+        // Note: Children that never decide the node follow in order of measured cost, so their order is not asserted.
+        var children = ((NodeConditionValue) instance.getCondition()).getChildren();
+
+        assertThat(children.getFirst()).hasToString("FilteringCondition.Leaf{operation=EQUAL, name=dept, value=sales}");
+        assertThat(children).filteredOn(NodeConditionValue.class::isInstance).singleElement()
+            .hasToString("FilteringCondition.Node{operation=OR, children=["
+                + "FilteringCondition.Leaf{operation=IS_NULL, name=leftAt, value=null}, "
+                + "FilteringCondition.Leaf{operation=EQUAL, name=dept, value=none}]}");
+    }
+
+    /**
+     * Test of adaptive method if the chosen order is reported. It is reported once, when the statistics have been
+     * collected.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testAdaptiveIfReported(Jsonb jsonb) {
+        var json = """
+            {"operation": "OR", "children": [{"operation": "PARTIAL_MATCH", "name": "mail", "value": "none"},
+             {"operation": "EQUAL", "name": "dept", "value": "sales"}]}
+            """;
+
+        var condition = jsonb.fromJson(json, FilteringConditionValue.class);
+        var reported = new ArrayList<FilteringConditionValue>();
+
+        var instance = FilteringPredicate.adaptive(condition, 10, reported::add);
+
+        var record = Json.createObjectBuilder().add("mail", "user@example.com").add("dept", "sales").build();
+
+        IntStream.range(0, 9).forEach(i -> instance.test(record));
+
+        assertThat(reported).isEmpty();
+
+        IntStream.range(0, 20).forEach(i -> instance.test(record));
+
+        assertThat(reported).singleElement().isSameAs(instance.getCondition())
+            .hasToString("FilteringCondition.Node{operation=OR, children=["
+                + "FilteringCondition.Leaf{operation=EQUAL, name=dept, value=sales}, "
+                + "FilteringCondition.Leaf{operation=PARTIAL_MATCH, name=mail, value=none}]}");
+    }
+
+    /**
+     * Test of adaptive method if invalid sample size.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testAdaptiveIfInvalidSampleSize(Jsonb jsonb) {
+        var condition = jsonb.fromJson("{\"operation\": \"OR\", \"children\": []}", FilteringConditionValue.class);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> FilteringPredicate.adaptive(condition, 0));
+    }
+
+    private static JsonObject parse(String json) {
+        try (var r = Json.createReader(new StringReader(json))) {
+            return r.readObject();
+        }
+    }
+}
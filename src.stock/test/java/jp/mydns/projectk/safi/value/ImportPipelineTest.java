@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import jp.mydns.projectk.safi.value.ImportPipeline.Stage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ Test of class {@code ImportPipeline}.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+class ImportPipelineTest {
+
+/**
+ Test of run method.
+
+ @param parallelism parallelism of each stage
+ @since 3.0.0
+ */
+@ParameterizedTest
+@ValueSource(ints = {1, 4})
+void testRun(int parallelism) throws InterruptedException {
+    var batches = new ConcurrentLinkedQueue<List<String>>();
+
+    var instance = new ImportPipeline.Builder<Integer, String>(v -> ((JsonNumber) v).intValue(), String::valueOf,
+        batches::add)
+        .withValidator(i -> i)
+        .withParallelism(Stage.BIND, parallelism)
+        .withParallelism(Stage.VALIDATE, parallelism)
+        .withParallelism(Stage.TRANSFORM, parallelism)
+        .withParallelism(Stage.PERSIST, parallelism)
+        .withQueueCapacity(16)
+        .withBatchSize(64)
+        .build();
+
+    var result = instance.run(numbers(10_000));
+
+    assertThat(result.getPersistedCount()).isEqualTo(10_000);
+    assertThat(result.getRejectedCount()).isZero();
+    assertThat(batches).allMatch(b -> b.size() <= 64);
+    assertThat(batches.stream().flatMap(List::stream))
+        .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 10_000).mapToObj(String::valueOf).toList());
+}
+
+/**
+ Test of run method if rejected.
+
+ @since 3.0.0
+ */
+@Test
+void testRunIfRejected() throws InterruptedException {
+    var persisted = Collections.synchronizedList(new ArrayList<Integer>());
+    var rejected = Collections.synchronizedList(new ArrayList<JsonValue>());
+
+    var instance = new ImportPipeline.Builder<Integer, Integer>(v -> ((JsonNumber) v).intValue(), i -> i,
+        persisted::addAll)
+        .withValidator(i -> {
+            if (i % 10 == 0) {
+                throw new IllegalArgumentException("Invalid.");
+            }
+            return i;
+        })
+        .withParallelism(Stage.VALIDATE, 2)
+        .withRejectionHandler((v, ex) -> rejected.add(v))
+        .build();
+
+    var result = instance.run(numbers(100));
+
+    assertThat(result.getPersistedCount()).isEqualTo(90);
+    assertThat(result.getRejectedCount()).isEqualTo(10);
+    assertThat(persisted).hasSize(90).noneMatch(i -> i % 10 == 0);
+    assertThat(rejected).map(JsonValue::toString).containsExactlyInAnyOrder(
+        "0", "10", "20", "30", "40", "50", "60", "70", "80", "90");
+}
+
+/**
+ Test of run method if a stage fails. Other stages are stopped and the failure is thrown.
+
+ @since 3.0.0
+ */
+@Test
+void testRunIfStageFails() {
+    var instance = new ImportPipeline.Builder<Integer, Integer>(v -> ((JsonNumber) v).intValue(), i -> {
+        if (i == 5_000) {
+            throw new IllegalStateException("Broken.");
+        }
+        return i;
+    }, b -> {
+    })
+        .withParallelism(Stage.TRANSFORM, 4)
+        .withQueueCapacity(8)
+        .build();
+
+    assertThatIllegalStateException().isThrownBy(() -> instance.run(numbers(100_000))).withMessage("Broken.");
+}
+
+/**
+ Test of run method if persisting fails.
+
+ @since 3.0.0
+ */
+@Test
+void testRunIfPersistFails() {
+    var instance = new ImportPipeline.Builder<JsonValue, JsonValue>(v -> v, v -> v, b -> {
+        throw new IllegalStateException("Broken.");
+    }).withBatchSize(10).build();
+
+    assertThatIllegalStateException().isThrownBy(() -> instance.run(numbers(100_000))).withMessage("Broken.");
+}
+
+/**
+ Test of run method if malformed.
+
+ @since 3.0.0
+ */
+@Test
+void testRunIfMalformed() {
+    var instance = new ImportPipeline.Builder<JsonValue, JsonValue>(v -> v, v -> v, b -> {
+    }).build();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> instance.run(input("{}")));
+    assertThatExceptionOfType(JsonParsingException.class).isThrownBy(() -> instance.run(input("[1, 2, 3")));
+}
+
+private static InputStream numbers(int count) {
+    return input(IntStream.range(0, count).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]")));
+}
+
+private static InputStream input(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+}
+
+}
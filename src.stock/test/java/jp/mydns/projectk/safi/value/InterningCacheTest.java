@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code InterningCache}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class InterningCacheTest {
+
+    /**
+     * Test that equal keys share one value.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testIntern() {
+        var instance = new InterningCache<String, StringBuilder>(16);
+
+        var first = instance.intern(new String("k"), StringBuilder::new);
+        var second = instance.intern(new String("k"), StringBuilder::new);
+
+        assertThat(second).isSameAs(first);
+        assertThat(instance.intern("other", StringBuilder::new)).isNotSameAs(first);
+        assertThat(instance.size()).isEqualTo(2);
+        assertThat(instance.getHitCount()).isEqualTo(1);
+        assertThat(instance.getMissCount()).isEqualTo(2);
+    }
+
+    /**
+     * Test that it is bounded by the maximum size.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testMaximumSize() {
+        var instance = new InterningCache<Integer, String>(32);
+
+        for (int i = 0; i < 1000; i++) {
+            instance.intern(i, String::valueOf);
+        }
+
+        assertThat(instance.size()).isLessThanOrEqualTo(32);
+    }
+
+    /**
+     * Test that equal keys share one value even when it is made at the same time.
+     *
+     * @throws Exception if occurs exception
+     * @since 3.0.0
+     */
+    @Test
+    void testInternConcurrently() throws Exception {
+        var instance = new InterningCache<String, Object>(16);
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<Object>>();
+
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit((Callable<Object>) () -> instance.intern("k", k -> new Object())));
+            }
+
+            var expect = instance.intern("k", k -> new Object());
+
+            for (var f : futures) {
+                assertThat(f.get()).isSameAs(expect);
+            }
+        }
+    }
+
+    /**
+     * Test of constructor and intern method if invalid argument.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testIfInvalidArgument() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new InterningCache<String, String>(0));
+
+        var instance = new InterningCache<String, String>(16);
+
+        assertThatNullPointerException().isThrownBy(() -> instance.intern(null, k -> k));
+        assertThatNullPointerException().isThrownBy(() -> instance.intern("k", null));
+        assertThatNullPointerException().isThrownBy(() -> instance.intern("k", k -> null));
+        assertThat(instance.size()).isZero();
+    }
+}
@@ -140,6 +140,22 @@ class JobdefValueTest {
         assertThat(result).isEqualTo(expect);
     }
 
+    /**
+     * Test of deserialize method, of class Deserializer, if JSON has unknown properties and a null transform
+     * expression. Unknown properties are skipped, and the result is written in the same form as the reflective binding.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfUnknownProperty(Jsonb jsonb) {
+        var json = "{\"unknown\":{\"a\":[1,{}]},\"trnsdef\":{\"a\":null},\"id\":\"x\",\"extra\":[]}";
+
+        var result = jsonb.toJson(jsonb.fromJson(json, JobdefValue.class));
+
+        assertThat(result).isEqualTo("{\"version\":0,\"id\":\"x\",\"trnsdef\":{\"a\":null}}");
+    }
+
     /**
      * Test of toString method.
      *
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code JsonObjectConvertor}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class JsonObjectConvertorTest {
+
+    private final JsonObject value = Json.createObjectBuilder()
+        .add("null", JsonValue.NULL)
+        .add("true", JsonValue.TRUE)
+        .add("false", JsonValue.FALSE)
+        .add("long", Long.MIN_VALUE)
+        .add("negative", -1)
+        .add("big", new BigDecimal("123456789012345678901234567890"))
+        .add("decimal", new BigDecimal("1.50"))
+        .add("string", "日本語")
+        .add("empty", "")
+        .add("array", Json.createArrayBuilder().add(1).add(Json.createArrayBuilder()).add("a"))
+        .add("object", Json.createObjectBuilder().add("key", Json.createObjectBuilder().add("k", 0)))
+        .build();
+
+    /**
+     * Test serialize and deserialize.
+     *
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Test
+    void testSerialize() throws IOException {
+        var instance = new JsonObjectConvertor();
+
+        var bytes = new ByteArrayOutputStream();
+        instance.serialize(value, bytes);
+
+        assertThat(instance.deserialize(ByteBuffer.wrap(bytes.toByteArray()))).isEqualTo(value);
+        assertThat(bytes.size()).isLessThan(value.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Test deserialize from a read-only buffer.
+     *
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeReadOnly() throws IOException {
+        var instance = new JsonObjectConvertor();
+
+        var bytes = new ByteArrayOutputStream();
+        instance.serialize(value, bytes);
+
+        assertThat(instance.deserialize(ByteBuffer.wrap(bytes.toByteArray()).asReadOnlyBuffer())).isEqualTo(value);
+    }
+
+    /**
+     * Test use with {@code ContentMap}.
+     *
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Test
+    void testWithContentMap() throws IOException {
+        var tmpDir = Path.of(System.getProperty("java.io.tmpdir"));
+
+        try (var instance = new ContentMap.Builder<JsonObject>(new JsonObjectConvertor())
+            .withStorageMode(ContentMap.StorageMode.MEMORY_MAPPED)
+            .build(Stream.of(Map.entry("k1", value), Map.entry("k2", JsonValue.EMPTY_JSON_OBJECT)).iterator(),
+                tmpDir);) {
+
+            assertThat(instance.get("k1")).isEqualTo(value);
+            assertThat(instance.get("k2")).isEqualTo(JsonValue.EMPTY_JSON_OBJECT);
+        }
+    }
+}
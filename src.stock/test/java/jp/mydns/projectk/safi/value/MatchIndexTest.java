@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.Json;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import jp.mydns.projectk.safi.value.FilteringOperationValue.LeafOperation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test of class {@code MatchIndex}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class MatchIndexTest {
+
+    private static final MatchIndex INDEX = MatchIndex.of(Stream.of(
+        Map.entry("k1", "Taro Yamada"),
+        Map.entry("k2", "abc xbcd"),
+        new AbstractMap.SimpleImmutableEntry<>("k3", (String) null),
+        Map.entry("k4", "yamada hanako"),
+        Map.entry("k5", "")).iterator());
+
+    /**
+     * Test of find method.
+     *
+     * @param operation operation
+     * @param value value to find
+     * @param expect expected keys separated by space
+     * @since 3.0.0
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "FORWARD_MATCH, TARO, k1",
+        "FORWARD_MATCH, yamada, k4",
+        "FORWARD_MATCH, '', k1 k2 k4 k5",
+        "FORWARD_MATCH, taro yamada!, ''",
+        "BACKWARD_MATCH, Yamada, k1",
+        "BACKWARD_MATCH, bcd, k2",
+        "BACKWARD_MATCH, x, ''",
+        "PARTIAL_MATCH, YAMADA, k1 k4",
+        "PARTIAL_MATCH, abcd, ''",
+        "PARTIAL_MATCH, bc, k2",
+        "PARTIAL_MATCH, a, k1 k2 k4",
+        "PARTIAL_MATCH, '', k1 k2 k4 k5"
+    })
+    void testFind(LeafOperation operation, String value, String expect) {
+        var result = INDEX.find(operation, value);
+
+        assertThat(result).containsExactly(expect.isEmpty() ? new String[0] : expect.split(" "));
+    }
+
+    /**
+     * Test of find method if unsupported operation.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testFindIfUnsupported() {
+        assertThatIllegalArgumentException().isThrownBy(() -> INDEX.find(LeafOperation.EQUAL, "a"));
+    }
+
+    /**
+     * Test of find method that finds the same keys as {@code FilteringPredicate}.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testFindIfSameAsFilteringPredicate() {
+        var rnd = new Random(7);
+        var chars = "abABéÉkK";
+
+        var props = IntStream.range(0, 500).mapToObj(i -> IntStream.range(0, rnd.nextInt(8))
+            .mapToObj(j -> String.valueOf(chars.charAt(rnd.nextInt(chars.length())))).reduce("", String::concat))
+            .toList();
+
+        var instance = MatchIndex.of(IntStream.range(0, props.size()).mapToObj(i -> Map.entry("k" + i, props.get(i)))
+            .iterator());
+
+        for (var op : List.of(LeafOperation.FORWARD_MATCH, LeafOperation.BACKWARD_MATCH, LeafOperation.PARTIAL_MATCH)) {
+            for (var value : List.of("a", "Ab", "ék", "bAa", "KBaÉ")) {
+                var p = FilteringPredicate.compile(new LeafConditionValue.Builder(op).withName("p").withValue(value)
+                    .unsafeBuild());
+
+                var expect = IntStream.range(0, props.size())
+                    .filter(i -> p.test(Json.createObjectBuilder().add("p", props.get(i)).build()))
+                    .mapToObj(i -> "k" + i).toList();
+
+                assertThat(instance.find(op, value)).as("%s %s", op, value).isEqualTo(expect);
+            }
+        }
+    }
+
+    /**
+     * Test of of method for {@code ContentMap}, and ofKeys method.
+     *
+     * @param tmpDir temporary directory
+     * @throws IOException if occurs I/O error
+     * @since 3.0.0
+     */
+    @Test
+    void testOfContentMap(@TempDir Path tmpDir) throws IOException {
+        var convertor = new ContentMap.Convertor<String>() {
+            @Override
+            public String serialize(String c) {
+                return c;
+            }
+
+            @Override
+            public String deserialize(String s) {
+                return s;
+            }
+        };
+
+        try (var contents = new ContentMap<>(Map.of("user1", "Sato", "user2", "Suzuki", "admin", "Kato").entrySet()
+            .iterator(), tmpDir, convertor)) {
+
+            var byValue = MatchIndex.of(contents, String::toUpperCase);
+            var byKey = MatchIndex.ofKeys(contents);
+
+            assertThat(byValue.size()).isEqualTo(3);
+            assertThat(byValue.find(LeafOperation.BACKWARD_MATCH, "to")).containsExactlyInAnyOrder("user1", "admin");
+            assertThat(byKey.find(LeafOperation.FORWARD_MATCH, "USER")).containsExactlyInAnyOrder("user1", "user2");
+        }
+    }
+}
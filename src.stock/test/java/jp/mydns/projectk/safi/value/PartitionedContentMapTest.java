@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ Test of class {PartitionedContentMap}.
+
+ @author riru
+ @version 3.0.0
+ @since 3.0.0
+ */
+class PartitionedContentMapTest {
+
+/**
+ Test that it is same as a single {@code ContentMap}.
+
+ @param tmpDir temporary directory
+ @since 3.0.0
+ */
+@Test
+void testSameAsContentMap(@TempDir Path tmpDir) throws IOException {
+    var builder = new ContentMap.Builder<String>(new TestConvertor()).withDigest(PartitionedContentMapTest::sha512);
+
+    try (var expect = builder.build(source(), tmpDir);
+        var instance = new PartitionedContentMap<>(source(), tmpDir, 4, builder);) {
+
+        assertThat(instance.segments()).hasSize(4).allMatch(s -> !s.isEmpty());
+        assertThat(instance.size()).isEqualTo(expect.size());
+        assertThat(instance.isEmpty()).isFalse();
+        assertThat(instance.keySet()).containsExactlyElementsOf(expect.keySet()).hasSize(expect.size());
+        assertThat(instance.keySet().contains("K1")).isTrue();
+        assertThat(instance.containsKey("k99")).isFalse();
+        assertThat(instance.get("K1")).isEqualTo("v1");
+        assertThat(instance.digest("k1")).isEqualTo(expect.digest("k1"));
+        assertThat(instance.digests()).containsExactlyElementsOf(expect.digests().toList());
+        assertThat(instance.stream()).containsExactlyInAnyOrderElementsOf(expect.stream().toList());
+        assertThat(instance.parallelStream()).containsExactlyInAnyOrderElementsOf(expect.stream().toList());
+        assertThat(instance.hasDuplicates()).isTrue();
+        assertThat(instance.duplicates()).containsExactlyInAnyOrderElementsOf(expect.duplicates().toList());
+    }
+
+    try (var files = Files.list(tmpDir)) {
+        assertThat(files).isEmpty();
+    }
+}
+
+/**
+ Test of constructor if a content is invalid.
+
+ @param tmpDir temporary directory
+ @since 3.0.0
+ */
+@Test
+void testConstructorIfInvalidContent(@TempDir Path tmpDir) throws IOException {
+    var builder = new ContentMap.Builder<String>(new TestConvertor());
+    var src = IntStream.range(0, 10_000).mapToObj(i -> i == 5_000 ? null : Map.entry("k" + i, "v" + i));
+
+    assertThatNullPointerException().isThrownBy(() -> new PartitionedContentMap<>(src.iterator(), tmpDir, 3,
+        builder));
+    assertThatIllegalArgumentException().isThrownBy(() -> new PartitionedContentMap<>(source(), tmpDir, 0,
+        builder));
+
+    try (var files = Files.list(tmpDir)) {
+        assertThat(files).isEmpty();
+    }
+}
+
+private Iterator<Map.Entry<String, String>> source() {
+    // Note: Every 100th id is duplicated in different case.
+    return IntStream.range(0, 10_000).mapToObj(i -> Map.entry((i % 100 == 99 ? "K" + (i - 1) : "k" + i), "v" + i))
+        .iterator();
+}
+
+private static String sha512(String c) {
+    try {
+        return HexFormat.of().formatHex(
+            MessageDigest.getInstance("SHA-512").digest(c.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+        throw new IllegalStateException(ex);
+    }
+}
+
+private class TestConvertor implements ContentMap.Convertor<String> {
+
+@Override
+public String serialize(String c) {
+    return c;
+}
+
+@Override
+public String deserialize(String s) {
+    return s;
+}
+
+}
+
+}
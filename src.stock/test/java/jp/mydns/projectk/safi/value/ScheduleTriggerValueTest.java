@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import jakarta.json.bind.Jsonb;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import static java.time.ZoneOffset.UTC;
+import jp.mydns.projectk.safi.constant.ScheduleTriggerKing;
+import jp.mydns.projectk.safi.test.junit.JsonbParameterResolver;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test of class {@code ScheduleTriggerValue}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+@ExtendWith(JsonbParameterResolver.class)
+class ScheduleTriggerValueTest {
+
+    /**
+     * Test of deserialize method if days trigger, of class Deserializer.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfDays(Jsonb jsonb) {
+        var json = "{\"kind\": \"DAYS\", \"anchorTime\": \"2700-10-10T07:09:42Z\", \"months\": [\"JULY\","
+            + " \"JANUARY\", \"JULY\"], \"days\": [25, 5], \"unknown\": {\"days\": [1]}}";
+
+        var result = jsonb.fromJson(json, ScheduleTriggerValue.class);
+
+        assertThat(result).isInstanceOf(DaysTriggerValue.class)
+            .returns(ScheduleTriggerKing.DAYS, ScheduleTriggerValue::getKind)
+            .returns(OffsetDateTime.of(2700, 10, 10, 7, 9, 42, 0, UTC), ScheduleTriggerValue::getAnchorTime);
+        assertThat(((DaysTriggerValue) result).getMonths()).containsExactly(Month.JULY, Month.JANUARY);
+        assertThat(((DaysTriggerValue) result).getDays()).containsExactly(25, 5);
+    }
+
+    /**
+     * Test of deserialize method if weekdays trigger, of class Deserializer.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfWeekdays(Jsonb jsonb) {
+        var json = "{\"kind\": \"WEEKDAYS\", \"anchorTime\": \"2700-10-10T07:09:42Z\", \"months\": [],"
+            + " \"weeks\": [2, 5], \"weekdays\": [\"SATURDAY\", \"SUNDAY\"]}";
+
+        var result = jsonb.fromJson(json, ScheduleTriggerValue.class);
+
+        assertThat(result).isInstanceOf(WeekdaysTriggerValue.class);
+        assertThat(((WeekdaysTriggerValue) result).getMonths()).isEmpty();
+        assertThat(((WeekdaysTriggerValue) result).getWeeks()).containsExactly(2, 5);
+        assertThat(((WeekdaysTriggerValue) result).getWeekdays()).containsExactly(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    }
+
+    /**
+     * Test of deserialize method if cancel trigger, of class Deserializer.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfCancel(Jsonb jsonb) {
+        var json = "{\"kind\": \"CANCEL\", \"anchorTime\": \"2700-10-10T07:09:42Z\", \"duration\": \"PT24H\"}";
+
+        var result = jsonb.fromJson(json, ScheduleTriggerValue.class);
+
+        assertThat(result).isInstanceOf(CancelTriggerValue.class)
+            .returns(Duration.ofHours(24), v -> ((CancelTriggerValue) v).getDuration());
+    }
+
+    /**
+     * Test of deserialize method if kind is missing, of class Deserializer.
+     *
+     * @param jsonb the {@code Jsonb}. This parameter resolved by {@code JsonbParameterResolver}.
+     * @since 3.0.0
+     */
+    @Test
+    void testDeserializeIfNoKind(Jsonb jsonb) {
+        var result = jsonb.fromJson("{\"anchorTime\": \"2700-10-10T07:09:42Z\"}", ScheduleTriggerValue.class);
+
+        assertThat(result).returns(null, ScheduleTriggerValue::getKind)
+            .returns(OffsetDateTime.of(2700, 10, 10, 7, 9, 42, 0, UTC), ScheduleTriggerValue::getAnchorTime);
+    }
+}
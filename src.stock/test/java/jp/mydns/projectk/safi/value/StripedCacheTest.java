@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.safi.value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class {@code StripedCache}.
+ *
+ * @author riru
+ * @version 3.0.0
+ * @since 3.0.0
+ */
+class StripedCacheTest {
+
+    /**
+     * Test of get and putIfAbsent method.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testPutIfAbsent() {
+        var instance = new StripedCache<String, String>(16);
+
+        assertThat(instance.get("k")).isNull();
+        assertThat(instance.putIfAbsent("k", "v1")).isEqualTo("v1");
+        assertThat(instance.putIfAbsent("k", "v2")).isEqualTo("v1");
+        assertThat(instance.get("k")).isEqualTo("v1");
+        assertThat(instance.getHitCount()).isEqualTo(1);
+        assertThat(instance.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test that the least recently used entry is evicted.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testEvict() {
+        var instance = new StripedCache<Integer, String>(1);
+
+        instance.putIfAbsent(1, "a");
+        instance.putIfAbsent(2, "b");
+
+        assertThat(instance.get(1)).isNull();
+        assertThat(instance.get(2)).isEqualTo("b");
+        assertThat(instance.size()).isEqualTo(1);
+    }
+
+    /**
+     * Test that the admission decides whether the victim is evicted.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testAdmission() {
+        var instance = new StripedCache<Integer, String>(1, c -> (candidate, victim) -> candidate > victim);
+
+        instance.putIfAbsent(2, "b");
+
+        assertThat(instance.putIfAbsent(1, "a")).isEqualTo("a");
+        assertThat(instance.get(1)).isNull();
+        assertThat(instance.get(2)).isEqualTo("b");
+
+        instance.putIfAbsent(3, "c");
+
+        assertThat(instance.get(2)).isNull();
+        assertThat(instance.get(3)).isEqualTo("c");
+    }
+
+    /**
+     * Test of constructor and methods if invalid argument.
+     *
+     * @since 3.0.0
+     */
+    @Test
+    void testIfInvalidArgument() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StripedCache<String, String>(0));
+        assertThatNullPointerException().isThrownBy(() -> new StripedCache<String, String>(16, null));
+        assertThatNullPointerException().isThrownBy(() -> new StripedCache<String, String>(16, c -> null));
+
+        var instance = new StripedCache<String, String>(16);
+
+        assertThatNullPointerException().isThrownBy(() -> instance.get(null));
+        assertThatNullPointerException().isThrownBy(() -> instance.putIfAbsent(null, "v"));
+        assertThatNullPointerException().isThrownBy(() -> instance.putIfAbsent("k", null));
+    }
+}
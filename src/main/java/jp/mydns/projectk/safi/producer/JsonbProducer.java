@@ -30,13 +30,23 @@ import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
 import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Qualifier;
+import jakarta.inject.Singleton;
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.JsonbBuilder;
+import java.lang.annotation.Documented;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
 /**
  <i>Jakarta CDI</i> producer of the {@link Jsonb}.
 
- Instance is created only once, reducing construction costs.
+ Instance is created only once, reducing construction costs. The same instance is injected through a client proxy,
+ or without it if qualified by {@link Unproxied}.
 
  @author riru
  @version 3.0.0
@@ -47,10 +57,19 @@ public interface JsonbProducer
     /**
      Produce the {@code Jsonb}.
 
+     @param jsonb the {@code Jsonb} that is produced by {@link #produceUnproxied()}
      @return the {@code Jsonb}
      @since 3.0.0
      */
-    Jsonb produce();
+    Jsonb produce(Jsonb jsonb);
+
+    /**
+     Produce the {@code Jsonb} that is injected without a client proxy.
+
+     @return the {@code Jsonb}
+     @since 3.0.0
+     */
+    Jsonb produceUnproxied();
 
     /**
      Close the produced {@code Jsonb} if disposed.
@@ -60,6 +79,23 @@ public interface JsonbProducer
      */
     void close(Jsonb jsonb);
 
+    /**
+     A qualifier of the {@code Jsonb} that is injected without a client proxy. A client proxy exposes only the
+     {@code Jsonb} interface, so use this if the capabilities of the implementation beyond it are needed, such as
+     serializing into a {@code JsonGenerator} of Yasson.
+
+     @author riru
+     @version 3.0.0
+     @since 3.0.0
+     */
+    @Qualifier
+    @Documented
+    @Target({METHOD, FIELD, PARAMETER})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Unproxied
+    {
+    }
+
     /**
      Internal Implementation.
 
@@ -75,13 +111,22 @@ public interface JsonbProducer
         @Produces
         @ApplicationScoped
         @Override
-        public Jsonb produce()
+        public Jsonb produce(@Unproxied Jsonb jsonb)
+        {
+            return jsonb;
+        }
+
+        @Produces
+        @Singleton
+        @Unproxied
+        @Override
+        public Jsonb produceUnproxied()
         {
             return JsonbBuilder.create();
         }
 
         @Override
-        public void close(@Disposes Jsonb jsonb)
+        public void close(@Disposes @Unproxied Jsonb jsonb)
         {
             try
             {
@@ -42,7 +42,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  JSON serialize and deserialize processing for <i>Jakarta RESTful Web Services</i>.
@@ -149,7 +152,10 @@ public interface JakartaRestJsonBinder extends MessageBodyReader<Object>, Messag
         }
 
         /**
-         Serialize to JSON and write to the {@code OutputStream}.
+         Serialize to JSON and write to the {@code OutputStream}. If {@code obj} is a {@code Stream} or an
+         {@code Iterator}, it is written as a JSON array element by element, and the output is flushed each time
+         {@value #CHUNK_SIZE} bytes are written. So a large collection is not materialized in heap, and the client
+         receives the beginning before the end is read. The {@code Stream} is closed after writing.
 
          @param obj       source object
          @param clazz     no use
@@ -167,7 +173,123 @@ public interface JakartaRestJsonBinder extends MessageBodyReader<Object>, Messag
         public void writeTo(Object obj, Class<?> clazz, Type type, Annotation[] annons, MediaType mediaType,
                             MultivaluedMap<String, Object> headers, OutputStream os) throws IOException
         {
-            jsonb.toJson(obj, os);
+            if (obj instanceof Stream<?> elements)
+            {
+                try (elements)
+                {
+                    writeArray(elements.iterator(), os);
+                }
+            }
+            else if (obj instanceof Iterator<?> elements)
+            {
+                writeArray(elements, os);
+            }
+            else
+            {
+                jsonb.toJson(obj, os);
+            }
+        }
+
+        private void writeArray(Iterator<?> elements, OutputStream os) throws IOException
+        {
+            Objects.requireNonNull(os);
+
+            var out = new ChunkedOutputStream(os);
+
+            out.write('[');
+
+            for (boolean first = true; elements.hasNext(); first = false)
+            {
+                if (!first)
+                {
+                    out.write(',');
+                }
+
+                Object element = elements.next();
+
+                if (element == null)
+                {
+                    out.write(NULL);
+                }
+                else
+                {
+                    jsonb.toJson(element, out);
+                }
+            }
+
+            out.write(']');
+            out.drain();
+        }
+
+        private static final int CHUNK_SIZE = 64 * 1024;
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+        // Note: Buffers the output and flushes it in chunks. It is never closed by the Jsonb that writes an element.
+        private static class ChunkedOutputStream extends OutputStream
+        {
+            private final OutputStream os;
+            private final byte[] buf = new byte[CHUNK_SIZE];
+            private int count;
+
+            private ChunkedOutputStream(OutputStream os)
+            {
+                this.os = os;
+            }
+
+            @Override
+            public void write(int b) throws IOException
+            {
+                if (count == buf.length)
+                {
+                    drain();
+                }
+
+                buf[count++] = (byte) b;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException
+            {
+                Objects.checkFromIndexSize(off, len, b.length);
+
+                while (len > 0)
+                {
+                    if (count == buf.length)
+                    {
+                        drain();
+                    }
+
+                    int n = Math.min(len, buf.length - count);
+
+                    System.arraycopy(b, off, buf, count, n);
+                    count += n;
+                    off += n;
+                    len -= n;
+                }
+            }
+
+            @Override
+            public void flush()
+            {
+                // Note: Jsonb flushes after each element, but the output is flushed only by chunk.
+            }
+
+            private void drain() throws IOException
+            {
+                if (count > 0)
+                {
+                    os.write(buf, 0, count);
+                    count = 0;
+                }
+
+                os.flush();
+            }
+
+            @Override
+            public void close()
+            {
+                // Note: Jsonb closes after each element, but the output continues to the end of the array.
+            }
         }
     }
 